@@ -9,6 +9,7 @@ plugins {
     `java-library`
     `java-test-fixtures`
     `maven-publish`
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 fun getProp(name: String, defaultValue: String? = null): String? {
@@ -83,6 +84,18 @@ val integrationTest = task<Test>("integrationTest") {
 
 tasks.check { dependsOn(integrationTest) }
 
+// benchmarks compare against internal codecs, so the jmh compilation sees internal declarations of main
+kotlin.target.compilations.named("jmh") {
+    associateWith(kotlin.target.compilations.getByName("main"))
+}
+
+jmh {
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    includes = listOfNotNull(getProp("jmh.includes"))
+}
+
 java {
     sourceCompatibility = JavaVersion.VERSION_21
     targetCompatibility = JavaVersion.VERSION_21
@@ -0,0 +1,50 @@
+package org.onflow.flow.sdk
+
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Throughput of computing transaction ids from one and from all cores; with per-thread digests the score of
+ * [idAllThreads] should grow with the number of cores instead of flattening on the provider registry.
+ *
+ * Run with `./gradlew :sdk:jmh -Pjmh.includes=TransactionIdBenchmark`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class TransactionIdBenchmark {
+    private lateinit var transaction: FlowTransaction
+    private lateinit var encoded: ByteArray
+
+    @Setup
+    fun setup() {
+        val proposer = FlowAddress("f8d6e0586b0a20c7")
+        transaction = FlowTransaction(
+            script = FlowScript("transaction(amount: UFix64, to: Address) { prepare(signer: &Account) {} execute {} }"),
+            arguments = List(2) { FlowArgument(ByteArray(64) { i -> i.toByte() }) },
+            referenceBlockId = FlowId.of(ByteArray(32) { it.toByte() }),
+            gasLimit = 9999,
+            proposalKey = FlowTransactionProposalKey(proposer, 0, 42),
+            payerAddress = proposer,
+            authorizers = listOf(proposer)
+        ).addEnvelopeSignature(proposer, 0, FlowSignature(ByteArray(64) { 1 }))
+        encoded = transaction.canonicalTransaction
+    }
+
+    // copies start without cached encodings, so every call encodes and hashes the transaction
+    @Benchmark
+    @Threads(1)
+    fun idSingleThread(): FlowId = transaction.copy().id
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    fun idAllThreads(): FlowId = transaction.copy().id
+
+    @Benchmark
+    @Threads(1)
+    fun sha3256SingleThread(): ByteArray = encoded.sha3256Hash()
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    fun sha3256AllThreads(): ByteArray = encoded.sha3256Hash()
+}
@@ -0,0 +1,58 @@
+package org.onflow.flow.sdk
+
+import org.onflow.flow.sdk.impl.TransactionRlp
+import org.openjdk.jmh.annotations.*
+import org.tdf.rlp.RLPCodec
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares the hand-written transaction RLP codec with the reflective `RLPCodec` it replaces.
+ *
+ * Run with `./gradlew :sdk:jmh -Pjmh.includes=TransactionRlpBenchmark`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class TransactionRlpBenchmark {
+    @Param("0", "4")
+    var argumentCount: Int = 0
+
+    private lateinit var transaction: FlowTransaction
+    private lateinit var encoded: ByteArray
+
+    @Setup
+    fun setup() {
+        val proposer = FlowAddress("f8d6e0586b0a20c7")
+        val payer = FlowAddress("ee82856bf20e2aa6")
+        transaction = FlowTransaction(
+            script = FlowScript("transaction(amount: UFix64, to: Address) { prepare(signer: &Account) {} execute {} }".repeat(8)),
+            arguments = List(argumentCount) { FlowArgument(ByteArray(64) { i -> i.toByte() }) },
+            referenceBlockId = FlowId.of(ByteArray(32) { it.toByte() }),
+            gasLimit = 9999,
+            proposalKey = FlowTransactionProposalKey(proposer, 3, 1_234_567),
+            payerAddress = payer,
+            authorizers = listOf(proposer)
+        )
+            .addPayloadSignature(proposer, 3, FlowSignature(ByteArray(64) { 1 }))
+            .addEnvelopeSignature(payer, 0, FlowSignature(ByteArray(64) { 2 }))
+        encoded = TransactionRlp.encodeTransaction(transaction)
+    }
+
+    @Benchmark
+    fun encodePayloadRlpCodec(): ByteArray = RLPCodec.encode(transaction.payload)
+
+    @Benchmark
+    fun encodePayloadTransactionRlp(): ByteArray = TransactionRlp.encodePayload(transaction)
+
+    @Benchmark
+    fun encodeTransactionRlpCodec(): ByteArray = RLPCodec.encode(transaction.transaction)
+
+    @Benchmark
+    fun encodeTransactionTransactionRlp(): ByteArray = TransactionRlp.encodeTransaction(transaction)
+
+    @Benchmark
+    fun decodeTransactionRlpCodec(): Any = RLPCodec.decode(encoded, TransactionEnvelope::class.java)
+
+    @Benchmark
+    fun decodeTransactionTransactionRlp(): Any = TransactionRlp.decodeTransaction(encoded)
+}
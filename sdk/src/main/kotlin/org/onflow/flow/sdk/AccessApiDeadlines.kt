@@ -0,0 +1,22 @@
+package org.onflow.flow.sdk
+
+import java.time.Duration
+
+/**
+ * Deadlines applied to every call made through a channel opened by [Flow], see [FlowChannelOptions.deadlines].
+ * [defaultDeadline] covers all unary methods, [methodDeadlines] overrides it per method. Subscriptions only get a
+ * deadline when they are listed in [methodDeadlines]. A deadline set for a single call with
+ * [FlowAccessApi.withDeadline] or [AsyncFlowAccessApi.withDeadline] takes precedence over both.
+ */
+data class AccessApiDeadlines @JvmOverloads constructor(
+    val defaultDeadline: Duration? = Duration.ofSeconds(30),
+    val methodDeadlines: Map<AccessApiMethod, Duration> = emptyMap()
+) {
+    init {
+        require(defaultDeadline == null || defaultDeadline > Duration.ZERO) { "defaultDeadline must be positive" }
+        require(methodDeadlines.values.all { it > Duration.ZERO }) { "method deadlines must be positive" }
+    }
+
+    fun deadlineFor(method: AccessApiMethod): Duration? =
+        methodDeadlines[method] ?: defaultDeadline.takeIf { !method.streaming }
+}
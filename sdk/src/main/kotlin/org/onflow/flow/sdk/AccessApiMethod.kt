@@ -0,0 +1,60 @@
+package org.onflow.flow.sdk
+
+/**
+ * Identifies the methods of [FlowAccessApi] and [AsyncFlowAccessApi], so that decorators and per-method
+ * configuration can refer to a call without depending on its signature.
+ */
+enum class AccessApiMethod(
+    // repeating the call has no effect beyond the first one, so it can be hedged or retried freely
+    val idempotent: Boolean = true,
+    // server streaming subscription rather than a unary call
+    val streaming: Boolean = false
+) {
+    PING,
+    GET_ACCOUNT_KEY_AT_LATEST_BLOCK,
+    GET_ACCOUNT_KEY_AT_BLOCK_HEIGHT,
+    GET_ACCOUNT_KEYS_AT_LATEST_BLOCK,
+    GET_ACCOUNT_KEYS_AT_BLOCK_HEIGHT,
+    GET_LATEST_BLOCK_HEADER,
+    GET_BLOCK_HEADER_BY_ID,
+    GET_BLOCK_HEADER_BY_HEIGHT,
+    GET_LATEST_BLOCK,
+    GET_BLOCK_BY_ID,
+    GET_ACCOUNT_BALANCE_AT_LATEST_BLOCK,
+    GET_ACCOUNT_BALANCE_AT_BLOCK_HEIGHT,
+    GET_BLOCK_BY_HEIGHT,
+    GET_COLLECTION_BY_ID,
+    GET_FULL_COLLECTION_BY_ID,
+    SEND_TRANSACTION(idempotent = false),
+    GET_TRANSACTION_BY_ID,
+    GET_TRANSACTION_RESULT_BY_ID,
+    GET_SYSTEM_TRANSACTION,
+    GET_SYSTEM_TRANSACTION_RESULT,
+    GET_TRANSACTION_RESULT_BY_INDEX,
+    GET_ACCOUNT_BY_ADDRESS,
+    GET_ACCOUNT_AT_LATEST_BLOCK,
+    GET_ACCOUNT_BY_BLOCK_HEIGHT,
+    EXECUTE_SCRIPT_AT_LATEST_BLOCK,
+    EXECUTE_SCRIPT_AT_BLOCK_ID,
+    EXECUTE_SCRIPT_AT_BLOCK_HEIGHT,
+    GET_EVENTS_FOR_HEIGHT_RANGE,
+    GET_EVENTS_FOR_BLOCK_IDS,
+    GET_NETWORK_PARAMETERS,
+    GET_LATEST_PROTOCOL_STATE_SNAPSHOT,
+    GET_PROTOCOL_STATE_SNAPSHOT_BY_BLOCK_ID,
+    GET_PROTOCOL_STATE_SNAPSHOT_BY_HEIGHT,
+    GET_NODE_VERSION_INFO,
+    GET_TRANSACTIONS_BY_BLOCK_ID,
+    GET_TRANSACTION_RESULTS_BY_BLOCK_ID,
+    GET_EXECUTION_RESULT_BY_BLOCK_ID,
+    SUBSCRIBE_EXECUTION_DATA_BY_BLOCK_ID(streaming = true),
+    SUBSCRIBE_EXECUTION_DATA_BY_BLOCK_HEIGHT(streaming = true),
+    SUBSCRIBE_EVENTS_BY_BLOCK_ID(streaming = true),
+    SUBSCRIBE_EVENTS_BY_BLOCK_HEIGHT(streaming = true);
+
+    companion object {
+        // unary calls that can be repeated or shared between callers without changing the outcome
+        @JvmField
+        val IDEMPOTENT_UNARY: Set<AccessApiMethod> = entries.filter { it.idempotent && !it.streaming }.toSet()
+    }
+}
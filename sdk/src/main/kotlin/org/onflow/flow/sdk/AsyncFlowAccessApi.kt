@@ -1,6 +1,7 @@
 package org.onflow.flow.sdk
 
 import com.google.protobuf.ByteString
+import java.time.Duration
 import java.util.concurrent.CompletableFuture
 
 interface AsyncFlowAccessApi {
@@ -81,4 +82,13 @@ interface AsyncFlowAccessApi {
     fun getTransactionResultsByBlockId(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<List<FlowTransactionResult>>>
 
     fun getExecutionResultByBlockId(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowExecutionResult?>>
+
+    /**
+     * Returns a view of this client whose unary calls fail with `DEADLINE_EXCEEDED` once [timeout] has passed,
+     * counted from this call. Overrides the deadlines configured through [FlowChannelOptions.deadlines].
+     * Subscriptions are not affected.
+     *
+     * The default returns this client unchanged, so implementations that do not override it apply no deadline.
+     */
+    fun withDeadline(timeout: Duration): AsyncFlowAccessApi = this
 }
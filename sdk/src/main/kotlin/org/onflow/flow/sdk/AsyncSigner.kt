@@ -0,0 +1,149 @@
+package org.onflow.flow.sdk
+
+import kotlinx.coroutines.future.await
+import org.onflow.flow.sdk.crypto.Crypto
+import org.onflow.flow.sdk.crypto.PrivateKey
+import org.onflow.flow.sdk.crypto.SignerImpl
+import org.onflow.flow.sdk.impl.Schedulers
+import java.io.Closeable
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.TimeUnit
+
+/**
+ * Signer for keys held by a remote service, returning signatures without blocking the calling thread.
+ */
+interface AsyncSigner {
+    fun signAsync(bytes: ByteArray): CompletableFuture<ByteArray>
+
+    // a signer that hashes on the service side has to be sent the tagged message, signers that hash here, such as
+    // [BatchSigner], hash the domain tag and the message one after the other instead
+    fun signWithDomainAsync(bytes: ByteArray, domain: ByteArray): CompletableFuture<ByteArray> = signAsync(domain + bytes)
+
+    fun signAsUserAsync(bytes: ByteArray): CompletableFuture<ByteArray> = signWithDomainAsync(bytes, DomainTag.USER_DOMAIN_TAG)
+
+    fun signAsTransactionAsync(bytes: ByteArray): CompletableFuture<ByteArray> = signWithDomainAsync(bytes, DomainTag.TRANSACTION_DOMAIN_TAG)
+}
+
+suspend fun AsyncSigner.signAsTransactionAwait(bytes: ByteArray): ByteArray = signAsTransactionAsync(bytes).await()
+
+/**
+ * Signer that signs many digests in one round trip, like key services that sign prehashed messages. Messages are
+ * hashed with [hashAlgo] before they are sent, the domain tag and the message one after the other, so only the
+ * digests leave the process. The returned signatures are in the order of the digests.
+ */
+interface BatchSigner : AsyncSigner {
+    val hashAlgo: HashAlgorithm get() = HashAlgorithm.SHA3_256
+
+    fun signDigests(digests: List<ByteArray>): CompletableFuture<List<ByteArray>>
+
+    fun signDigestAsync(digest: ByteArray): CompletableFuture<ByteArray> = signDigests(listOf(digest)).thenApply { it.single() }
+
+    override fun signAsync(bytes: ByteArray): CompletableFuture<ByteArray> = signDigestAsync(digest(hashAlgo, bytes))
+
+    override fun signWithDomainAsync(bytes: ByteArray, domain: ByteArray): CompletableFuture<ByteArray> =
+        signDigestAsync(digest(hashAlgo, domain, bytes))
+}
+
+/**
+ * In-process [BatchSigner] signing with [privateKey] on [executor], with deterministic RFC 6979 nonces. Stands in
+ * for a remote key service in tests and local setups.
+ */
+class LocalBatchSigner @JvmOverloads constructor(
+    privateKey: PrivateKey,
+    override val hashAlgo: HashAlgorithm = HashAlgorithm.SHA3_256,
+    private val executor: Executor = ForkJoinPool.commonPool()
+) : BatchSigner {
+    private val signer = SignerImpl(privateKey, hashAlgo, deterministic = true)
+
+    override fun signDigestAsync(digest: ByteArray): CompletableFuture<ByteArray> =
+        CompletableFuture.supplyAsync({ signer.signDigest(digest) }, executor)
+
+    override fun signDigests(digests: List<ByteArray>): CompletableFuture<List<ByteArray>> =
+        CompletableFuture.supplyAsync({ digests.map { signer.signDigest(it) } }, executor)
+}
+
+// hashes the parts one after the other, without concatenating them first
+internal fun digest(hashAlgo: HashAlgorithm, vararg parts: ByteArray): ByteArray {
+    val hasher = Crypto.getStreamingHasher(hashAlgo)
+    parts.forEach { hasher.update(it) }
+    return hasher.digest()
+}
+
+/**
+ * Hashes the messages passed to [signAsync] and signs their digests with a single [BatchSigner.signDigests] call once
+ * [maxBatchSize] are pending or the oldest waited [maxDelay]. Sharing one instance between many transactions built
+ * with [TransactionBuilder.buildAsync] turns their signatures into a few round trips.
+ */
+class BatchingSigner @JvmOverloads constructor(
+    private val delegate: BatchSigner,
+    private val maxBatchSize: Int = 100,
+    private val maxDelay: Duration = Duration.ofMillis(5)
+) : AsyncSigner,
+    Closeable {
+    private class Request(val digest: ByteArray, val future: CompletableFuture<ByteArray>)
+
+    init {
+        require(maxBatchSize > 0) { "maxBatchSize must be positive" }
+    }
+
+    private val scheduler = Schedulers.newDaemonScheduler("flow-batching-signer")
+    private var pending = mutableListOf<Request>()
+    private var closed = false
+
+    override fun signAsync(bytes: ByteArray): CompletableFuture<ByteArray> = enqueue(digest(delegate.hashAlgo, bytes))
+
+    override fun signWithDomainAsync(bytes: ByteArray, domain: ByteArray): CompletableFuture<ByteArray> =
+        enqueue(digest(delegate.hashAlgo, domain, bytes))
+
+    override fun close() {
+        synchronized(this) {
+            closed = true
+        }
+        scheduler.shutdownNow()
+        flush()
+    }
+
+    private fun enqueue(digest: ByteArray): CompletableFuture<ByteArray> {
+        val request = Request(digest, CompletableFuture())
+        val full = synchronized(this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(IllegalStateException("BatchingSigner is closed"))
+            }
+            pending.add(request)
+            if (pending.size == 1) {
+                scheduler.schedule(::flush, maxDelay.toNanos(), TimeUnit.NANOSECONDS)
+            }
+            pending.size >= maxBatchSize
+        }
+        if (full) {
+            flush()
+        }
+        return request.future
+    }
+
+    private fun flush() {
+        val batch = synchronized(this) {
+            pending.also { pending = mutableListOf() }
+        }
+        if (batch.isEmpty()) {
+            return
+        }
+        val signed: CompletableFuture<List<ByteArray>> = try {
+            delegate.signDigests(batch.map { it.digest })
+        } catch (e: Exception) {
+            CompletableFuture.failedFuture(e)
+        }
+        signed.whenComplete { signatures, error ->
+            when {
+                error != null -> batch.forEach { it.future.completeExceptionally(error) }
+                signatures.size != batch.size -> batch.forEach {
+                    it.future.completeExceptionally(IllegalStateException("Expected ${batch.size} signatures but got ${signatures.size}"))
+                }
+                else -> batch.forEachIndexed { i, request -> request.future.complete(signatures[i]) }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.onflow.flow.sdk
+
+import com.google.protobuf.ByteString
+import java.time.Duration
+import kotlinx.coroutines.flow.Flow as KotlinFlow
+
+/**
+ * Coroutine flavour of [FlowAccessApi]. Calls suspend until the access node answers instead of blocking a thread,
+ * and cancelling the calling coroutine cancels the underlying gRPC call. Subscriptions are cold flows: the stream
+ * is opened when the flow is collected and closed when collection stops.
+ */
+interface CoroutineFlowAccessApi {
+    suspend fun ping(): FlowAccessApi.AccessApiCallResponse<Unit>
+
+    suspend fun getAccountKeyAtLatestBlock(address: FlowAddress, keyIndex: Int): FlowAccessApi.AccessApiCallResponse<FlowAccountKey>
+
+    suspend fun getAccountKeyAtBlockHeight(address: FlowAddress, keyIndex: Int, height: Long): FlowAccessApi.AccessApiCallResponse<FlowAccountKey>
+
+    suspend fun getAccountKeysAtLatestBlock(address: FlowAddress): FlowAccessApi.AccessApiCallResponse<List<FlowAccountKey>>
+
+    suspend fun getAccountKeysAtBlockHeight(address: FlowAddress, height: Long): FlowAccessApi.AccessApiCallResponse<List<FlowAccountKey>>
+
+    suspend fun getLatestBlockHeader(sealed: Boolean = true): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader>
+
+    suspend fun getBlockHeaderById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader>
+
+    suspend fun getBlockHeaderByHeight(height: Long): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader>
+
+    suspend fun getLatestBlock(sealed: Boolean = true, fullBlockResponse: Boolean = false): FlowAccessApi.AccessApiCallResponse<FlowBlock>
+
+    suspend fun getAccountBalanceAtLatestBlock(address: FlowAddress): FlowAccessApi.AccessApiCallResponse<Long>
+
+    suspend fun getAccountBalanceAtBlockHeight(address: FlowAddress, height: Long): FlowAccessApi.AccessApiCallResponse<Long>
+
+    suspend fun getBlockById(id: FlowId, fullBlockResponse: Boolean = false): FlowAccessApi.AccessApiCallResponse<FlowBlock>
+
+    suspend fun getBlockByHeight(height: Long, fullBlockResponse: Boolean = false): FlowAccessApi.AccessApiCallResponse<FlowBlock>
+
+    suspend fun getCollectionById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowCollection>
+
+    suspend fun getFullCollectionById(id: FlowId): FlowAccessApi.AccessApiCallResponse<List<FlowTransaction>>
+
+    suspend fun sendTransaction(transaction: FlowTransaction): FlowAccessApi.AccessApiCallResponse<FlowId>
+
+    suspend fun getTransactionById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransaction>
+
+    suspend fun getTransactionResultById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransactionResult>
+
+    suspend fun getSystemTransaction(blockId: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransaction>
+
+    suspend fun getSystemTransactionResult(blockId: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransactionResult>
+
+    suspend fun getTransactionResultByIndex(blockId: FlowId, index: Int): FlowAccessApi.AccessApiCallResponse<FlowTransactionResult>
+
+    @Deprecated(
+        message = "Behaves identically to getAccountAtLatestBlock",
+        replaceWith = ReplaceWith("getAccountAtLatestBlock")
+    )
+    suspend fun getAccountByAddress(address: FlowAddress): FlowAccessApi.AccessApiCallResponse<FlowAccount>
+
+    suspend fun getAccountAtLatestBlock(address: FlowAddress): FlowAccessApi.AccessApiCallResponse<FlowAccount>
+
+    suspend fun getAccountByBlockHeight(address: FlowAddress, height: Long): FlowAccessApi.AccessApiCallResponse<FlowAccount>
+
+    suspend fun executeScriptAtLatestBlock(script: FlowScript, arguments: Iterable<ByteString> = emptyList()): FlowAccessApi.AccessApiCallResponse<FlowScriptResponse>
+
+    suspend fun executeScriptAtBlockId(script: FlowScript, blockId: FlowId, arguments: Iterable<ByteString> = emptyList()): FlowAccessApi.AccessApiCallResponse<FlowScriptResponse>
+
+    suspend fun executeScriptAtBlockHeight(script: FlowScript, height: Long, arguments: Iterable<ByteString> = emptyList()): FlowAccessApi.AccessApiCallResponse<FlowScriptResponse>
+
+    suspend fun getEventsForHeightRange(type: String, range: ClosedRange<Long>): FlowAccessApi.AccessApiCallResponse<List<FlowEventResult>>
+
+    suspend fun getEventsForBlockIds(type: String, ids: Set<FlowId>): FlowAccessApi.AccessApiCallResponse<List<FlowEventResult>>
+
+    suspend fun getNetworkParameters(): FlowAccessApi.AccessApiCallResponse<FlowChainId>
+
+    suspend fun getLatestProtocolStateSnapshot(): FlowAccessApi.AccessApiCallResponse<FlowSnapshot>
+
+    suspend fun getProtocolStateSnapshotByBlockId(blockId: FlowId): FlowAccessApi.AccessApiCallResponse<FlowSnapshot>
+
+    suspend fun getProtocolStateSnapshotByHeight(height: Long): FlowAccessApi.AccessApiCallResponse<FlowSnapshot>
+
+    suspend fun getNodeVersionInfo(): FlowAccessApi.AccessApiCallResponse<FlowNodeVersionInfo>
+
+    suspend fun getTransactionsByBlockId(id: FlowId): FlowAccessApi.AccessApiCallResponse<List<FlowTransaction>>
+
+    suspend fun getTransactionResultsByBlockId(id: FlowId): FlowAccessApi.AccessApiCallResponse<List<FlowTransactionResult>>
+
+    suspend fun getExecutionResultByBlockId(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowExecutionResult>
+
+    fun subscribeExecutionDataByBlockId(blockId: FlowId): KotlinFlow<FlowBlockExecutionData>
+
+    fun subscribeExecutionDataByBlockHeight(height: Long): KotlinFlow<FlowBlockExecutionData>
+
+    fun subscribeEventsByBlockId(blockId: FlowId): KotlinFlow<List<FlowEvent>>
+
+    fun subscribeEventsByBlockHeight(height: Long): KotlinFlow<List<FlowEvent>>
+
+    /**
+     * Returns a view of this client whose unary calls fail with `DEADLINE_EXCEEDED` once [timeout] has passed,
+     * counted from this call. Overrides the deadlines configured through [FlowChannelOptions.deadlines].
+     * Subscriptions are not affected.
+     *
+     * The default returns this client unchanged, so implementations that do not override it apply no deadline.
+     */
+    fun withDeadline(timeout: Duration): CoroutineFlowAccessApi = this
+}
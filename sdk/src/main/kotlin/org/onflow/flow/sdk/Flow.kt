@@ -10,7 +10,12 @@ import org.onflow.flow.sdk.cadence.CadenceNamespace
 import org.onflow.flow.sdk.cadence.Field
 import org.onflow.flow.sdk.cadence.JsonCadenceMarshalling
 import org.onflow.flow.sdk.impl.AsyncFlowAccessApiImpl
+import org.onflow.flow.sdk.impl.ChannelPool
+import org.onflow.flow.sdk.impl.CoroutineFlowAccessApiImpl
+import org.onflow.flow.sdk.impl.DeadlineInterceptor
 import org.onflow.flow.sdk.impl.FlowAccessApiImpl
+import org.onflow.flow.sdk.impl.LoadBalancedAsyncFlowAccessApi
+import org.onflow.flow.sdk.impl.LoadBalancedFlowAccessApi
 import org.onflow.protobuf.executiondata.ExecutionDataAPIGrpc
 import kotlin.reflect.KClass
 
@@ -43,25 +48,61 @@ object Flow {
 
     @JvmStatic
     @JvmOverloads
-    fun newAccessApi(host: String, port: Int = 9000, secure: Boolean = false, userAgent: String = DEFAULT_USER_AGENT, maxMessageSize: Int = DEFAULT_MAX_MESSAGE_SIZE): FlowAccessApi {
-        val channel = openChannel(host, port, secure, userAgent, maxMessageSize)
+    fun newAccessApi(host: String, port: Int = 9000, secure: Boolean = false, userAgent: String = DEFAULT_USER_AGENT, maxMessageSize: Int = DEFAULT_MAX_MESSAGE_SIZE, channelOptions: FlowChannelOptions = FlowChannelOptions()): FlowAccessApi {
+        val channel = openChannel(host, port, secure, userAgent, maxMessageSize, channelOptions)
         return FlowAccessApiImpl(AccessAPIGrpc.newBlockingStub(channel), ExecutionDataAPIGrpc.newBlockingStub(channel))
     }
 
     @JvmStatic
     @JvmOverloads
-    fun newAsyncAccessApi(host: String, port: Int = 9000, secure: Boolean = false, userAgent: String = DEFAULT_USER_AGENT, maxMessageSize: Int = DEFAULT_MAX_MESSAGE_SIZE): AsyncFlowAccessApi {
-        val channel = openChannel(host, port, secure, userAgent, maxMessageSize)
-        return AsyncFlowAccessApiImpl(AccessAPIGrpc.newFutureStub(channel))
+    fun newAsyncAccessApi(host: String, port: Int = 9000, secure: Boolean = false, userAgent: String = DEFAULT_USER_AGENT, maxMessageSize: Int = DEFAULT_MAX_MESSAGE_SIZE, channelOptions: FlowChannelOptions = FlowChannelOptions()): AsyncFlowAccessApi {
+        val channel = openChannel(host, port, secure, userAgent, maxMessageSize, channelOptions)
+        return AsyncFlowAccessApiImpl(AccessAPIGrpc.newFutureStub(channel), channelOptions.decodeExecutor)
     }
 
     @JvmStatic
-    private fun openChannel(host: String, port: Int, secure: Boolean, userAgent: String, maxMessageSize: Int): ManagedChannel {
-        var channelBuilder = ManagedChannelBuilder
-            .forAddress(host, port)
+    @JvmOverloads
+    fun newCoroutineAccessApi(host: String, port: Int = 9000, secure: Boolean = false, userAgent: String = DEFAULT_USER_AGENT, maxMessageSize: Int = DEFAULT_MAX_MESSAGE_SIZE, channelOptions: FlowChannelOptions = FlowChannelOptions()): CoroutineFlowAccessApi {
+        val channel = openChannel(host, port, secure, userAgent, maxMessageSize, channelOptions)
+        return CoroutineFlowAccessApiImpl(AsyncFlowAccessApiImpl(AccessAPIGrpc.newFutureStub(channel), channelOptions.decodeExecutor), ExecutionDataAPIGrpc.newStub(channel))
+    }
+
+    @JvmStatic
+    @JvmOverloads
+    fun newLoadBalancedAccessApi(endpoints: List<FlowAccessEndpoint>, options: LoadBalancingOptions = LoadBalancingOptions(), userAgent: String = DEFAULT_USER_AGENT, maxMessageSize: Int = DEFAULT_MAX_MESSAGE_SIZE, channelOptions: FlowChannelOptions = FlowChannelOptions()): FlowAccessApi {
+        require(endpoints.isNotEmpty()) { "at least one endpoint is required" }
+        val nodes = endpoints.map { newAccessApi(it.host, it.port, it.secure, userAgent, maxMessageSize, channelOptions) }
+        return LoadBalancedFlowAccessApi(nodes, options)
+    }
+
+    @JvmStatic
+    @JvmOverloads
+    fun newLoadBalancedAsyncAccessApi(endpoints: List<FlowAccessEndpoint>, options: LoadBalancingOptions = LoadBalancingOptions(), hedging: HedgingPolicy? = null, userAgent: String = DEFAULT_USER_AGENT, maxMessageSize: Int = DEFAULT_MAX_MESSAGE_SIZE, channelOptions: FlowChannelOptions = FlowChannelOptions()): AsyncFlowAccessApi {
+        require(endpoints.isNotEmpty()) { "at least one endpoint is required" }
+        val nodes = endpoints.map { newAsyncAccessApi(it.host, it.port, it.secure, userAgent, maxMessageSize, channelOptions) }
+        return LoadBalancedAsyncFlowAccessApi(nodes, options, hedging)
+    }
+
+    @JvmStatic
+    private fun openChannel(host: String, port: Int, secure: Boolean, userAgent: String, maxMessageSize: Int, channelOptions: FlowChannelOptions): ManagedChannel {
+        if (channelOptions.poolSize == 1 && !channelOptions.dedicatedStreamChannels) {
+            return buildChannel(host, port, secure, userAgent, maxMessageSize, channelOptions)
+        }
+        return ChannelPool(channelOptions.poolSize, channelOptions.dedicatedStreamChannels) {
+            buildChannel(host, port, secure, userAgent, maxMessageSize, channelOptions)
+        }
+    }
+
+    @JvmStatic
+    private fun buildChannel(host: String, port: Int, secure: Boolean, userAgent: String, maxMessageSize: Int, channelOptions: FlowChannelOptions): ManagedChannel {
+        var channelBuilder = (channelOptions.builderFactory?.newBuilder(host, port) ?: ManagedChannelBuilder.forAddress(host, port))
             .userAgent(userAgent)
             .maxInboundMessageSize(maxMessageSize)
 
+        channelOptions.executor?.let { channelBuilder = channelBuilder.executor(it) }
+        channelOptions.offloadExecutor?.let { channelBuilder = channelBuilder.offloadExecutor(it) }
+        channelOptions.deadlines?.let { channelBuilder = channelBuilder.intercept(DeadlineInterceptor(it)) }
+
         channelBuilder = if (secure) {
             channelBuilder.useTransportSecurity()
         } else {
@@ -4,6 +4,7 @@ import com.google.protobuf.ByteString
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Job
 import kotlinx.coroutines.channels.ReceiveChannel
+import java.time.Duration
 
 interface FlowAccessApi {
     sealed class AccessApiCallResponse<out T> {
@@ -113,4 +114,13 @@ interface FlowAccessApi {
         scope: CoroutineScope,
         height: Long
     ): Triple<ReceiveChannel<List<FlowEvent>>, ReceiveChannel<Throwable>, Job>
+
+    /**
+     * Returns a view of this client whose unary calls fail with `DEADLINE_EXCEEDED` once [timeout] has passed,
+     * counted from this call. Overrides the deadlines configured through [FlowChannelOptions.deadlines].
+     * Subscriptions are not affected.
+     *
+     * The default returns this client unchanged, so implementations that do not override it apply no deadline.
+     */
+    fun withDeadline(timeout: Duration): FlowAccessApi = this
 }
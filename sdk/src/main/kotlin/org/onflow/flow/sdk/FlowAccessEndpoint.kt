@@ -0,0 +1,10 @@
+package org.onflow.flow.sdk
+
+/**
+ * Address of a single access node, used when a client is spread over several nodes.
+ */
+data class FlowAccessEndpoint @JvmOverloads constructor(
+    val host: String,
+    val port: Int = 9000,
+    val secure: Boolean = false
+)
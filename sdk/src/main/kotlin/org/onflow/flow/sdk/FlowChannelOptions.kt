@@ -0,0 +1,47 @@
+package org.onflow.flow.sdk
+
+import io.grpc.ManagedChannelBuilder
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+
+/**
+ * Threading and transport settings for the gRPC channels opened by [Flow].
+ *
+ * [executor] runs response callbacks and [offloadExecutor] runs blocking work such as name resolution; when
+ * unset gRPC falls back to its shared, unbounded cached thread pools. [builderFactory] replaces
+ * `ManagedChannelBuilder.forAddress`, e.g. to return a `NettyChannelBuilder` configured with an epoll event loop
+ * group and channel type. [decodeExecutor] moves the conversion of asynchronous responses into SDK models off the
+ * gRPC threads, which matters when large full blocks are decoded. Executors and event loops passed in here are
+ * owned by the caller and are not shut down when the client is closed.
+ *
+ * [poolSize] greater than one spreads unary calls over that many connections to the endpoint, and
+ * [dedicatedStreamChannels] gives every subscription a connection of its own, see
+ * [org.onflow.flow.sdk.impl.ChannelPool]. [deadlines] bounds how long each call may take, see [AccessApiDeadlines].
+ */
+data class FlowChannelOptions @JvmOverloads constructor(
+    val executor: Executor? = null,
+    val offloadExecutor: Executor? = null,
+    val builderFactory: BuilderFactory? = null,
+    val decodeExecutor: Executor? = null,
+    val poolSize: Int = 1,
+    val dedicatedStreamChannels: Boolean = false,
+    val deadlines: AccessApiDeadlines? = null
+) {
+    init {
+        require(poolSize > 0) { "poolSize must be positive" }
+    }
+
+    fun interface BuilderFactory {
+        fun newBuilder(host: String, port: Int): ManagedChannelBuilder<*>
+    }
+
+    companion object {
+        /**
+         * Runs callbacks and blocking work on [executor], typically `Executors.newVirtualThreadPerTaskExecutor()`.
+         * Like every executor passed in here it stays owned by the caller, who shuts it down after closing the clients.
+         */
+        @JvmStatic
+        fun virtualThreads(executor: ExecutorService): FlowChannelOptions =
+            FlowChannelOptions(executor = executor, offloadExecutor = executor)
+    }
+}
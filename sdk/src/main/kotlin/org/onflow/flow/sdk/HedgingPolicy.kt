@@ -0,0 +1,35 @@
+package org.onflow.flow.sdk
+
+import java.time.Duration
+
+/**
+ * Enables hedged reads in [Flow.newLoadBalancedAsyncAccessApi]: when a call to one of [methods] has not completed
+ * after the hedge delay, the same call is sent to another access node, the first response wins and the other call
+ * is cancelled.
+ *
+ * With [percentile] set the delay follows that latency percentile of the recent calls of the same method, and
+ * [delay] is only used until [minSamples] calls have been observed. Without it [delay] is used as is.
+ */
+data class HedgingPolicy @JvmOverloads constructor(
+    val delay: Duration = Duration.ofMillis(100),
+    val percentile: Double? = 0.95,
+    val windowSize: Int = 1000,
+    val minSamples: Int = 100,
+    val methods: Set<AccessApiMethod> = DEFAULT_METHODS
+) {
+    companion object {
+        @JvmField
+        val DEFAULT_METHODS: Set<AccessApiMethod> = AccessApiMethod.IDEMPOTENT_UNARY
+
+        @JvmStatic
+        fun fixedDelay(delay: Duration): HedgingPolicy = HedgingPolicy(delay = delay, percentile = null)
+    }
+
+    init {
+        require(!delay.isNegative) { "delay must not be negative" }
+        require(percentile == null || (percentile > 0.0 && percentile < 1.0)) { "percentile must be in (0, 1)" }
+        require(windowSize > 0) { "windowSize must be positive" }
+        require(minSamples in 1..windowSize) { "minSamples must be in 1..windowSize" }
+        require(methods.all { it.idempotent && !it.streaming }) { "only idempotent unary methods can be hedged" }
+    }
+}
@@ -0,0 +1,30 @@
+package org.onflow.flow.sdk
+
+import java.time.Duration
+
+/**
+ * Tuning for clients created with [Flow.newLoadBalancedAccessApi] and [Flow.newLoadBalancedAsyncAccessApi].
+ *
+ * Each call goes to the better of two randomly picked nodes, scored by their smoothed latency, in-flight calls and
+ * error rate. Nodes whose sealed height trails the highest known sealed height by more than [maxSealedHeightLag]
+ * blocks receive no traffic until they catch up.
+ */
+data class LoadBalancingOptions @JvmOverloads constructor(
+    val maxSealedHeightLag: Long = 30,
+    // how often every node is asked for its latest sealed header, zero disables the background check
+    val healthCheckInterval: Duration = Duration.ofSeconds(5),
+    // deadline of each health check call, so a stalled node cannot hold up the checks of the others
+    val healthCheckTimeout: Duration = Duration.ofSeconds(2),
+    // weight of the latest sample in the exponentially weighted latency and error averages
+    val decay: Double = 0.3,
+    // how strongly the error rate inflates a node's score, 0 ignores errors entirely
+    val errorPenalty: Double = 8.0
+) {
+    init {
+        require(maxSealedHeightLag >= 0) { "maxSealedHeightLag must not be negative" }
+        require(!healthCheckInterval.isNegative) { "healthCheckInterval must not be negative" }
+        require(healthCheckTimeout > Duration.ZERO) { "healthCheckTimeout must be positive" }
+        require(decay > 0.0 && decay <= 1.0) { "decay must be in (0, 1]" }
+        require(errorPenalty >= 0.0) { "errorPenalty must not be negative" }
+    }
+}
@@ -0,0 +1,48 @@
+package org.onflow.flow.sdk
+
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Template for a transaction that is sent many times with different arguments. The script imports are resolved
+ * and the script is encoded once when the template is created; transactions built from it share the same
+ * [FlowScript] and only bind arguments, proposer, payer and signatures.
+ *
+ * Templates are immutable and can be shared between threads.
+ */
+class PreparedTransaction @JvmOverloads constructor(
+    code: String,
+    chainId: FlowChainId = Flow.DEFAULT_CHAIN_ID,
+    addresses: Map<String, FlowAddress> = mapOf(),
+    addressRegistry: AddressRegistry = Flow.DEFAULT_ADDRESS_REGISTRY,
+    // applied to every transaction unless the builder block sets its own
+    val gasLimit: Number? = null
+) {
+    val script: FlowScript = FlowScript(addressRegistry.processScript(code, chainId, addresses))
+
+    /**
+     * Returns a builder that already holds the processed script and the default gas limit.
+     */
+    @JvmOverloads
+    fun builder(api: FlowAccessApi? = null): TransactionBuilder = TransactionBuilder(api).also {
+        it.script(script)
+        if (gasLimit != null) {
+            it.gasLimit(gasLimit)
+        }
+    }
+
+    fun build(block: TransactionBuilder.() -> Unit): FlowTransaction = builder().apply(block).build()
+
+    fun buildAsync(block: TransactionBuilder.() -> Unit): CompletableFuture<FlowTransaction> = builder().apply(block).buildAsync()
+}
+
+/**
+ * Same as [flowTransaction], starting from the script and gas limit of [prepared].
+ */
+fun FlowAccessApi.flowTransaction(prepared: PreparedTransaction, referenceBlockId: FlowId? = null, block: TransactionBuilder.() -> Unit): FlowTransactionStub =
+    this.flowTransaction(referenceBlockId) {
+        script(prepared.script)
+        if (prepared.gasLimit != null) {
+            gasLimit(prepared.gasLimit)
+        }
+        block(this)
+    }
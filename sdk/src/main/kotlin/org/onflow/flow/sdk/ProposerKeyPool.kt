@@ -0,0 +1,182 @@
+package org.onflow.flow.sdk
+
+import java.io.Closeable
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Pool of proposal keys of a single account. A Flow account can only have one pending transaction per proposal key,
+ * so every transaction leases a free key together with its signer and gives it back once the transaction is sealed
+ * or expired. Throughput therefore grows with the number of keys in the pool, see [addKeys] to add them in bulk.
+ *
+ * Keys used by [send] also pay for the transaction, so they need the full signing weight of the account.
+ */
+class ProposerKeyPool @JvmOverloads constructor(
+    private val api: FlowAccessApi,
+    val address: FlowAddress,
+    signers: Map<Int, Signer>,
+    private val sequenceNumbers: SequenceNumberTracker = SequenceNumberTracker(api),
+    // how often new blocks are read for the transactions holding a lease, see [TransactionStatusTracker]
+    pollInterval: Duration = Duration.ofSeconds(1),
+    // releases a key whose transaction result could not be read for this long
+    private val maxPending: Duration = Duration.ofMinutes(15)
+) : Closeable {
+    companion object {
+        private const val ADD_KEYS_SCRIPT = """
+            transaction(publicKeys: [String], signatureAlgorithm: UInt8, hashAlgorithm: UInt8, weight: UFix64) {
+                prepare(signer: auth(AddKey) &Account) {
+                    for publicKey in publicKeys {
+                        signer.keys.add(
+                            publicKey: PublicKey(
+                                publicKey: publicKey.decodeHex(),
+                                signatureAlgorithm: SignatureAlgorithm(rawValue: signatureAlgorithm)!
+                            ),
+                            hashAlgorithm: HashAlgorithm(rawValue: hashAlgorithm)!,
+                            weight: weight
+                        )
+                    }
+                }
+            }
+        """
+
+        /**
+         * Creates a pool from every key of the account at [address] that matches [publicKey] and is not revoked,
+         * all signed by [signer].
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun fromAccount(api: FlowAccessApi, address: FlowAddress, publicKey: FlowPublicKey, signer: Signer, sequenceNumbers: SequenceNumberTracker = SequenceNumberTracker(api)): ProposerKeyPool {
+            val account = when (val result = api.getAccountAtLatestBlock(address)) {
+                is FlowAccessApi.AccessApiCallResponse.Success -> result.data
+                is FlowAccessApi.AccessApiCallResponse.Error -> throw IllegalStateException("Account for address not found: ${result.message}", result.throwable)
+            }
+            val keys = account.keys.filter { !it.revoked && it.publicKey == publicKey }
+            require(keys.isNotEmpty()) { "PublicKey not found for account" }
+            return ProposerKeyPool(api, address, keys.associate { it.id to signer }, sequenceNumbers)
+        }
+
+        /**
+         * Adds [count] copies of [publicKey] to the account at [address] in a single transaction proposed, paid and
+         * authorized by [keyIndex], so one signer can drive all of them. Returns the id of the transaction.
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun addKeys(
+            api: FlowAccessApi,
+            address: FlowAddress,
+            keyIndex: Int,
+            signer: Signer,
+            publicKey: FlowPublicKey,
+            count: Int,
+            signAlgo: SignatureAlgorithm = SignatureAlgorithm.ECDSA_P256,
+            hashAlgo: HashAlgorithm = HashAlgorithm.SHA3_256,
+            weight: Number = 1000,
+            gasLimit: Number = 9999
+        ): FlowId {
+            require(count > 0) { "count must be positive" }
+            return api.simpleFlowTransaction(address, signer, gasLimit, keyIndex) {
+                script(ADD_KEYS_SCRIPT.trimIndent())
+                argument { array(List(count) { string(publicKey.base16Value) }) }
+                argument { uint8(signAlgo.index) }
+                argument { uint8(hashAlgo.index) }
+                argument { ufix64(weight) }
+            }.send().transactionId!!
+        }
+    }
+
+    /**
+     * A key leased from the pool. The proposal key carries the next sequence number of the key; [close] hands the
+     * key back, after which the lease must no longer be used.
+     */
+    inner class Lease internal constructor(
+        val keyIndex: Int,
+        val signer: Signer
+    ) : Closeable {
+        private val released = AtomicBoolean()
+
+        val proposalKey: FlowTransactionProposalKey by lazy { sequenceNumbers.proposalKey(address, keyIndex) }
+
+        override fun close() {
+            if (released.compareAndSet(false, true)) {
+                free.add(keyIndex)
+            }
+        }
+    }
+
+    init {
+        require(signers.isNotEmpty()) { "at least one key is required" }
+    }
+
+    private val signers: Map<Int, Signer> = signers.toMap()
+    private val free = LinkedBlockingQueue(this.signers.keys)
+    private val tracker = TransactionStatusTracker(api, pollInterval)
+
+    val size: Int get() = signers.size
+
+    val availableKeys: Int get() = free.size
+
+    /**
+     * Waits until a key is free and leases it.
+     */
+    fun acquire(): Lease = lease(free.take())
+
+    /**
+     * Waits up to [timeout] for a free key, returns null when none became available.
+     */
+    fun acquire(timeout: Duration): Lease? = free.poll(timeout.toNanos(), TimeUnit.NANOSECONDS)?.let { lease(it) }
+
+    fun tryAcquire(): Lease? = free.poll()?.let { lease(it) }
+
+    /**
+     * Leases a key, proposes and pays the transaction built by [block] with it and sends it. The key is released
+     * once the transaction is sealed or expired, or right away when sending fails.
+     */
+    fun send(block: TransactionBuilder.() -> Unit): FlowId {
+        val lease = acquire()
+        val stub = try {
+            api.flowTransaction {
+                proposalKey(lease.proposalKey)
+                sequenceNumberTracker = sequenceNumbers
+                payerAddress(address)
+                signature(address, lease.keyIndex, lease.signer)
+                block(this)
+            }.send()
+        } catch (e: Exception) {
+            // the tracker already handed out the next number, the chain still expects the one that was not used
+            sequenceNumbers.resync(address, lease.keyIndex)
+            lease.close()
+            throw e
+        }
+        releaseWhenFinal(lease, tracker.track(stub.transaction!!, FlowTransactionStatus.SEALED, maxPending))
+        return stub.transactionId!!
+    }
+
+    /**
+     * Hands [lease] back once [transactionId] is sealed or expired. Expired transactions did not consume their
+     * sequence number, so the key is resynced before it is leased again.
+     */
+    fun releaseWhenFinal(lease: Lease, transactionId: FlowId) {
+        releaseWhenFinal(lease, tracker.track(transactionId, FlowTransactionStatus.SEALED, maxPending))
+    }
+
+    override fun close() {
+        tracker.close()
+    }
+
+    private fun lease(keyIndex: Int): Lease = Lease(keyIndex, signers.getValue(keyIndex))
+
+    private fun releaseWhenFinal(lease: Lease, final: CompletableFuture<FlowTransactionResult>) {
+        final.whenComplete { result, _ ->
+            if (result?.status == FlowTransactionStatus.SEALED) {
+                sequenceNumbers.reportResult(lease.proposalKey, result)
+            } else {
+                // expired, timed out or closed, the transaction may not have consumed its sequence number
+                sequenceNumbers.resync(address, lease.keyIndex)
+            }
+            lease.close()
+        }
+    }
+}
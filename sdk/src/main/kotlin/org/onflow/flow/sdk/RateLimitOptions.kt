@@ -0,0 +1,43 @@
+package org.onflow.flow.sdk
+
+import java.time.Duration
+
+/**
+ * Client-side rate limits for [org.onflow.flow.sdk.impl.RateLimitedFlowAccessApi] and
+ * [org.onflow.flow.sdk.impl.RateLimitedAsyncFlowAccessApi], one token bucket per method.
+ *
+ * A bucket starts at its configured rate. Every RESOURCE_EXHAUSTED response multiplies the rate by
+ * [decreaseFactor], at most once per [decreaseInterval] and never below [minRatePerSecond]. Afterwards the rate grows
+ * back by [recoveryPerSecond] permits per second each second until it reaches the configured rate again. Calls that
+ * would have to wait longer than [maxWait] fail right away instead of queueing, with a [RateLimitExceededException].
+ */
+data class RateLimitOptions @JvmOverloads constructor(
+    val defaultRatePerSecond: Double = 50.0,
+    val methodRatesPerSecond: Map<AccessApiMethod, Double> = emptyMap(),
+    val burst: Double = 10.0,
+    val minRatePerSecond: Double = 1.0,
+    val decreaseFactor: Double = 0.5,
+    val decreaseInterval: Duration = Duration.ofSeconds(1),
+    val recoveryPerSecond: Double = 1.0,
+    val maxWait: Duration = Duration.ofSeconds(30)
+) {
+    init {
+        require(defaultRatePerSecond > 0.0 && methodRatesPerSecond.values.all { it > 0.0 }) { "rates must be positive" }
+        require(burst >= 1.0) { "burst must be at least 1" }
+        require(minRatePerSecond > 0.0) { "minRatePerSecond must be positive" }
+        require(decreaseFactor > 0.0 && decreaseFactor < 1.0) { "decreaseFactor must be in (0, 1)" }
+        require(!decreaseInterval.isNegative) { "decreaseInterval must not be negative" }
+        require(recoveryPerSecond > 0.0) { "recoveryPerSecond must be positive" }
+        require(!maxWait.isNegative) { "maxWait must not be negative" }
+    }
+
+    fun rateFor(method: AccessApiMethod): Double = methodRatesPerSecond[method] ?: defaultRatePerSecond
+}
+
+/**
+ * Cause of the error returned for calls rejected by a client-side rate limit. It carries no gRPC status, so the
+ * retrying and load balancing decorators neither retry the call nor count it against an access node.
+ */
+class RateLimitExceededException(
+    val method: AccessApiMethod
+) : RuntimeException("Client-side rate limit for $method exceeded")
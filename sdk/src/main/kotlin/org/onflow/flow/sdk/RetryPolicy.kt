@@ -0,0 +1,64 @@
+package org.onflow.flow.sdk
+
+import io.grpc.Status
+import java.time.Duration
+
+/**
+ * How one access API method is retried when it fails with one of [retryableCodes]. The n-th retry waits
+ * `initialBackoff * multiplier^(n-1)`, capped at [maxBackoff], shortened by a random fraction of up to [jitter].
+ */
+data class RetryPolicy @JvmOverloads constructor(
+    val maxAttempts: Int = 3,
+    val initialBackoff: Duration = Duration.ofMillis(100),
+    val maxBackoff: Duration = Duration.ofSeconds(2),
+    val multiplier: Double = 2.0,
+    val jitter: Double = 0.5,
+    val retryableCodes: Set<Status.Code> = DEFAULT_RETRYABLE_CODES
+) {
+    companion object {
+        @JvmField
+        val DEFAULT_RETRYABLE_CODES: Set<Status.Code> = setOf(
+            Status.Code.UNAVAILABLE,
+            Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.DEADLINE_EXCEEDED,
+            Status.Code.ABORTED
+        )
+
+        @JvmField
+        val NO_RETRY: RetryPolicy = RetryPolicy(maxAttempts = 1)
+    }
+
+    init {
+        require(maxAttempts >= 1) { "maxAttempts must be at least 1" }
+        require(!initialBackoff.isNegative) { "initialBackoff must not be negative" }
+        require(maxBackoff >= initialBackoff) { "maxBackoff must not be shorter than initialBackoff" }
+        require(multiplier >= 1.0) { "multiplier must be at least 1" }
+        require(jitter in 0.0..1.0) { "jitter must be in [0, 1]" }
+    }
+}
+
+/**
+ * Retry configuration of a client, see [org.onflow.flow.sdk.impl.RetryingFlowAccessApi].
+ *
+ * Methods that are not [AccessApiMethod.idempotent] are never retried blindly: a failed [FlowAccessApi.sendTransaction]
+ * is only sent again after the node confirmed it does not know the transaction id, and a response carrying a
+ * different id is reported as an error instead of being accepted.
+ *
+ * The retry budget works like gRPC retry throttling: every retryable failure takes a token, every success returns
+ * [budgetTokenRatio] of one, and retries stop while fewer than half of [budgetMaxTokens] are left. This keeps an
+ * outage from turning into a retry storm.
+ */
+data class RetryOptions @JvmOverloads constructor(
+    val defaultPolicy: RetryPolicy = RetryPolicy(),
+    val methodPolicies: Map<AccessApiMethod, RetryPolicy> = emptyMap(),
+    val budgetMaxTokens: Double = 100.0,
+    val budgetTokenRatio: Double = 0.1
+) {
+    init {
+        require(methodPolicies.keys.none { it.streaming }) { "streaming methods cannot be retried" }
+        require(budgetMaxTokens > 0.0) { "budgetMaxTokens must be positive" }
+        require(budgetTokenRatio > 0.0) { "budgetTokenRatio must be positive" }
+    }
+
+    fun policyFor(method: AccessApiMethod): RetryPolicy = methodPolicies[method] ?: defaultPolicy
+}
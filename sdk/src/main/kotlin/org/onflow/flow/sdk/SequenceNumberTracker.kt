@@ -0,0 +1,74 @@
+package org.onflow.flow.sdk
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Hands out proposal key sequence numbers locally. The current sequence number of a key is read from the network
+ * the first time the key is used, after that every call to [next] returns the following number without a round
+ * trip, also when transactions are built concurrently.
+ *
+ * When a transaction comes back with [FlowError.FLOW_ERROR_InvalidProposalSeqNumberError] the local counter is out
+ * of step with the chain; report it through [reportResult] or [reportFailure] and the key is read again on its
+ * next use. Transactions still pending at that point may make the refreshed number lag behind, in which case they
+ * fail in turn and trigger another resync.
+ */
+class SequenceNumberTracker(
+    private val api: FlowAccessApi
+) {
+    private data class KeyId(
+        val address: FlowAddress,
+        val keyIndex: Int
+    )
+
+    private class KeyState {
+        // next number to hand out, null until read from the network
+        var next: Long? = null
+    }
+
+    private val keys = ConcurrentHashMap<KeyId, KeyState>()
+
+    fun next(address: FlowAddress, keyIndex: Int): Long {
+        val state = keys.computeIfAbsent(KeyId(address, keyIndex)) { KeyState() }
+        synchronized(state) {
+            val current = state.next ?: fetch(address, keyIndex)
+            state.next = current + 1
+            return current
+        }
+    }
+
+    fun proposalKey(address: FlowAddress, keyIndex: Int): FlowTransactionProposalKey =
+        FlowTransactionProposalKey(address, keyIndex, next(address, keyIndex))
+
+    fun resync(address: FlowAddress, keyIndex: Int) {
+        keys[KeyId(address, keyIndex)]?.let { synchronized(it) { it.next = null } }
+    }
+
+    /**
+     * Resyncs the proposal key of a transaction whose result reports an invalid sequence number. Returns true when
+     * the key was resynced.
+     */
+    fun reportResult(proposalKey: FlowTransactionProposalKey, result: FlowTransactionResult): Boolean =
+        resyncOnSequenceError(proposalKey, result.errorMessage)
+
+    /**
+     * Resyncs the proposal key of a transaction that failed with an invalid sequence number anywhere in the cause
+     * chain of [error]. Returns true when the key was resynced.
+     */
+    fun reportFailure(proposalKey: FlowTransactionProposalKey, error: Throwable): Boolean =
+        generateSequence(error) { it.cause }.any { resyncOnSequenceError(proposalKey, it.message) }
+
+    private fun resyncOnSequenceError(proposalKey: FlowTransactionProposalKey, message: String?): Boolean {
+        val code = message?.let { parseErrorCode(it) }
+        if (code == null || FlowError.forErrorCode(code) != FlowError.FLOW_ERROR_InvalidProposalSeqNumberError) {
+            return false
+        }
+        resync(proposalKey.address, proposalKey.keyIndex)
+        return true
+    }
+
+    private fun fetch(address: FlowAddress, keyIndex: Int): Long =
+        when (val result = api.getAccountKeyAtLatestBlock(address, keyIndex)) {
+            is FlowAccessApi.AccessApiCallResponse.Success -> result.data.sequenceNumber.toLong()
+            is FlowAccessApi.AccessApiCallResponse.Error -> throw IllegalStateException("Account key for address not found: ${result.message}", result.throwable)
+        }
+}
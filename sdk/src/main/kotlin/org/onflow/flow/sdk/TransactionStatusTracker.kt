@@ -0,0 +1,269 @@
+package org.onflow.flow.sdk
+
+import kotlinx.coroutines.future.await
+import org.onflow.flow.sdk.impl.Schedulers
+import java.io.Closeable
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Watches many transactions at once from a background thread, replacing one polling loop per transaction.
+ *
+ * Every [pollInterval] the tracker walks the blocks sealed since its previous poll, and the blocks finalized since
+ * then while a transaction waits for a status before [FlowTransactionStatus.SEALED], and reads the results of all
+ * their transactions with one `getTransactionResultsByBlockId` call per block, completing the watches of every
+ * transaction it finds. Expiry follows from the height of the reference block: a transaction that was not found
+ * once the sealed blocks passed its expiry window is looked up to read its final status.
+ *
+ * Besides that, a transaction is only looked up on its own when it is first tracked, to catch transactions that
+ * were final before. These lookups run next to the polling thread, at most [maxConcurrentLookups] at a time, so the
+ * number of calls depends on the block rate, not on the number of transactions in flight.
+ */
+class TransactionStatusTracker @JvmOverloads constructor(
+    private val api: FlowAccessApi,
+    private val pollInterval: Duration = Duration.ofSeconds(1),
+    // pause before a transaction is looked up again after a failed lookup, or while it is past its expiry window
+    // without being final
+    private val recheckInterval: Duration = Duration.ofSeconds(30),
+    // upper bound on the blocks read per poll, so a tracker that fell behind catches up gradually
+    private val maxBlocksPerPoll: Int = 50,
+    private val maxConcurrentLookups: Int = 8
+) : Closeable {
+    private class Watch(
+        val status: FlowTransactionStatus,
+        val deadline: Long,
+        val future: CompletableFuture<FlowTransactionResult>
+    )
+
+    private class Tracked(
+        @Volatile var referenceBlockId: FlowId?
+    ) {
+        val watches = CopyOnWriteArrayList<Watch>()
+
+        @Volatile
+        var referenceHeight: Long? = null
+
+        // null until the first lookup finished
+        @Volatile
+        var lookedUpAt: Long? = null
+
+        val lookingUp = AtomicBoolean()
+    }
+
+    init {
+        require(maxBlocksPerPoll > 0) { "maxBlocksPerPoll must be positive" }
+        require(maxConcurrentLookups > 0) { "maxConcurrentLookups must be positive" }
+    }
+
+    private val watches = ConcurrentHashMap<FlowId, Tracked>()
+    private val referenceHeights = ConcurrentHashMap<FlowId, Long>()
+    private val recheckNanos = recheckInterval.toNanos()
+    private val scheduler = Schedulers.newDaemonScheduler("flow-transaction-tracker")
+    private val lookups = Schedulers.newDaemonPool("flow-transaction-lookup", maxConcurrentLookups)
+    private val lookupsInFlight = AtomicInteger()
+
+    // highest sealed and finalized heights whose results were read, only touched by the scheduler thread
+    private var sealedScanned = -1L
+    private var finalizedScanned = -1L
+
+    init {
+        scheduler.scheduleWithFixedDelay(::poll, pollInterval.toNanos(), pollInterval.toNanos(), TimeUnit.NANOSECONDS)
+    }
+
+    val trackedTransactions: Int get() = watches.size
+
+    /**
+     * Returns a future that completes with the result of [transactionId] once it reached [status] or expired, or
+     * fails with a [TimeoutException] after [timeout]. Cancelling the future stops watching for this caller.
+     */
+    @JvmOverloads
+    fun track(
+        transactionId: FlowId,
+        status: FlowTransactionStatus = FlowTransactionStatus.SEALED,
+        timeout: Duration = Duration.ofMinutes(15)
+    ): CompletableFuture<FlowTransactionResult> = watch(transactionId, null, status, timeout)
+
+    /**
+     * Like tracking the id of [transaction], but its reference block is known up front, which saves looking the
+     * transaction up to work out when it expires.
+     */
+    @JvmOverloads
+    fun track(
+        transaction: FlowTransaction,
+        status: FlowTransactionStatus = FlowTransactionStatus.SEALED,
+        timeout: Duration = Duration.ofMinutes(15)
+    ): CompletableFuture<FlowTransactionResult> = watch(transaction.id, transaction.referenceBlockId, status, timeout)
+
+    suspend fun await(
+        transactionId: FlowId,
+        status: FlowTransactionStatus = FlowTransactionStatus.SEALED,
+        timeout: Duration = Duration.ofMinutes(15)
+    ): FlowTransactionResult = track(transactionId, status, timeout).await()
+
+    override fun close() {
+        scheduler.shutdownNow()
+        lookups.shutdownNow()
+        val pending = watches.values.flatMap { it.watches }
+        watches.clear()
+        pending.forEach { it.future.cancel(false) }
+    }
+
+    private fun watch(
+        transactionId: FlowId,
+        referenceBlockId: FlowId?,
+        status: FlowTransactionStatus,
+        timeout: Duration
+    ): CompletableFuture<FlowTransactionResult> {
+        val future = CompletableFuture<FlowTransactionResult>()
+        val watch = Watch(status, System.nanoTime() + timeout.toNanos(), future)
+        watches.compute(transactionId) { _, tracked ->
+            (tracked ?: Tracked(referenceBlockId)).apply {
+                if (this.referenceBlockId == null) {
+                    this.referenceBlockId = referenceBlockId
+                }
+                this.watches.add(watch)
+            }
+        }
+        future.whenComplete { _, _ -> remove(transactionId, watch) }
+        return future
+    }
+
+    private fun poll() {
+        try {
+            if (watches.isEmpty()) {
+                sealedScanned = -1
+                finalizedScanned = -1
+                referenceHeights.clear()
+                return
+            }
+            latestHeight(true)?.let { sealedScanned = scan(sealedScanned, it) }
+            if (watches.values.any { tracked -> tracked.watches.any { it.status < FlowTransactionStatus.SEALED } }) {
+                latestHeight(false)?.let { finalizedScanned = scan(finalizedScanned, it) }
+            } else {
+                finalizedScanned = -1
+            }
+            // lookups only start once the sealed scan has its start height, so a transaction is either final when it
+            // is looked up or found by a later scan
+            if (sealedScanned >= 0) {
+                startLookups()
+            }
+            expire()
+        } catch (e: Exception) {
+            // keep polling, the next round retries whatever failed here
+        }
+    }
+
+    private fun latestHeight(sealed: Boolean): Long? {
+        val result = api.getLatestBlockHeader(sealed)
+        return if (result is FlowAccessApi.AccessApiCallResponse.Success) result.data.height else null
+    }
+
+    // reads the results of the blocks above scanned up to height and returns the new scanned height
+    private fun scan(scanned: Long, height: Long): Long {
+        if (scanned < 0 || scanned > height) {
+            return height
+        }
+        var at = scanned
+        val until = minOf(height, scanned + maxBlocksPerPoll)
+        while (at < until && watches.isNotEmpty()) {
+            val header = api.getBlockHeaderByHeight(at + 1)
+            if (header !is FlowAccessApi.AccessApiCallResponse.Success) {
+                break
+            }
+            val results = api.getTransactionResultsByBlockId(header.data.id)
+            if (results !is FlowAccessApi.AccessApiCallResponse.Success) {
+                break
+            }
+            results.data.forEach { complete(it) }
+            at++
+        }
+        return at
+    }
+
+    private fun startLookups() {
+        val now = System.nanoTime()
+        for ((transactionId, tracked) in watches) {
+            if (lookupsInFlight.get() >= maxConcurrentLookups) {
+                return
+            }
+            if (!lookupDue(tracked, now) || !tracked.lookingUp.compareAndSet(false, true)) {
+                continue
+            }
+            lookupsInFlight.incrementAndGet()
+            lookups.execute { lookUp(transactionId, tracked) }
+        }
+    }
+
+    private fun lookupDue(tracked: Tracked, now: Long): Boolean {
+        val lookedUpAt = tracked.lookedUpAt ?: return true
+        if (now - lookedUpAt < recheckNanos) {
+            return false
+        }
+        // without a reference height the previous lookup failed, otherwise only transactions that should have
+        // expired by now are looked up again
+        val referenceHeight = tracked.referenceHeight ?: return true
+        return sealedScanned > referenceHeight + EXPIRY_BLOCKS
+    }
+
+    private fun lookUp(transactionId: FlowId, tracked: Tracked) {
+        try {
+            val result = api.getTransactionResultById(transactionId)
+            if (result is FlowAccessApi.AccessApiCallResponse.Success) {
+                complete(result.data)
+            }
+            if (tracked.referenceHeight == null && tracked.watches.isNotEmpty()) {
+                tracked.referenceHeight = referenceHeight(transactionId, tracked)
+            }
+        } catch (e: Exception) {
+            // looked up again after the recheck interval
+        } finally {
+            tracked.lookedUpAt = System.nanoTime()
+            tracked.lookingUp.set(false)
+            lookupsInFlight.decrementAndGet()
+        }
+    }
+
+    private fun referenceHeight(transactionId: FlowId, tracked: Tracked): Long? {
+        val blockId = tracked.referenceBlockId ?: run {
+            val transaction = api.getTransactionById(transactionId)
+            if (transaction is FlowAccessApi.AccessApiCallResponse.Success) transaction.data.referenceBlockId else null
+        } ?: return null
+        tracked.referenceBlockId = blockId
+        // transactions sent around the same time share their reference block
+        referenceHeights[blockId]?.let { return it }
+        val header = api.getBlockHeaderById(blockId)
+        return if (header is FlowAccessApi.AccessApiCallResponse.Success) header.data.height.also { referenceHeights[blockId] = it } else null
+    }
+
+    private fun complete(result: FlowTransactionResult) {
+        val tracked = watches[result.transactionId] ?: return
+        tracked.watches.filter { result.status >= it.status }.forEach { it.future.complete(result) }
+    }
+
+    private fun expire() {
+        val now = System.nanoTime()
+        for ((transactionId, tracked) in watches) {
+            tracked.watches.filter { now - it.deadline > 0 }.forEach {
+                it.future.completeExceptionally(TimeoutException("Timeout waiting for transaction $transactionId to reach ${it.status}"))
+            }
+        }
+    }
+
+    private fun remove(transactionId: FlowId, watch: Watch) {
+        watches.computeIfPresent(transactionId) { _, tracked ->
+            tracked.watches.remove(watch)
+            tracked.takeIf { it.watches.isNotEmpty() }
+        }
+    }
+
+    private companion object {
+        // blocks after its reference block in which a transaction can still be included
+        const val EXPIRY_BLOCKS = 600L
+    }
+}
@@ -0,0 +1,82 @@
+package org.onflow.flow.sdk.crypto
+
+import org.onflow.flow.sdk.FlowAccount
+import org.onflow.flow.sdk.FlowAccountKey
+import org.onflow.flow.sdk.FlowPublicKey
+import org.onflow.flow.sdk.SignatureAlgorithm
+import java.util.Collections
+
+/**
+ * Checks user signatures against the keys of an account locally, following the rules of the
+ * `user_signature_validate_all.cdc` and `user_signature_validate_any.cdc` scripts without executing them. Messages
+ * are verified as signed, without a domain tag.
+ *
+ * Decoded public keys are cached, so once the keys of an account were seen validation is CPU only.
+ */
+class UserSignatureValidator @JvmOverloads constructor(
+    // number of decoded public keys kept, least recently used ones are dropped first
+    private val maxCachedKeys: Int = 10_000
+) {
+    /**
+     * A signature by the account key at [keyIndex].
+     */
+    class KeySignature(
+        val keyIndex: Int,
+        val signature: ByteArray
+    )
+
+    private data class KeyId(val publicKey: FlowPublicKey, val algo: SignatureAlgorithm)
+
+    init {
+        require(maxCachedKeys > 0) { "maxCachedKeys must be positive" }
+    }
+
+    private val keys: MutableMap<KeyId, PublicKey> = Collections.synchronizedMap(
+        object : LinkedHashMap<KeyId, PublicKey>(16, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<KeyId, PublicKey>?): Boolean = size > maxCachedKeys
+        }
+    )
+
+    /**
+     * Returns true when every signature is valid for its key and the weights of the keys add up to at least 1000.
+     * A missing or revoked key, an invalid signature or a key signing twice fail the whole set.
+     */
+    fun validateAll(account: FlowAccount, message: ByteArray, signatures: List<KeySignature>): Boolean {
+        val seen = HashSet<Int>()
+        var weight = 0L
+        for (signature in signatures) {
+            if (!seen.add(signature.keyIndex)) {
+                return false
+            }
+            val key = account.keys.find { it.id == signature.keyIndex } ?: return false
+            if (key.revoked || !verify(key, message, signature.signature)) {
+                return false
+            }
+            weight += key.weight
+        }
+        return weight >= FULL_WEIGHT
+    }
+
+    /**
+     * Returns true when [signature] is valid for any key of the account that is not revoked, regardless of weight.
+     */
+    fun validateAny(account: FlowAccount, message: ByteArray, signature: ByteArray): Boolean =
+        account.keys.any { !it.revoked && verify(it, message, signature) }
+
+    private fun verify(key: FlowAccountKey, message: ByteArray, signature: ByteArray): Boolean =
+        try {
+            publicKey(key).verify(signature, message, key.hashAlgo)
+        } catch (e: IllegalArgumentException) {
+            // keys with algorithms the sdk cannot verify never match
+            false
+        }
+
+    private fun publicKey(key: FlowAccountKey): PublicKey {
+        val id = KeyId(key.publicKey, key.signAlgo)
+        return keys[id] ?: Crypto.decodePublicKey(key.publicKey.base16Value, key.signAlgo).also { keys[id] = it }
+    }
+
+    private companion object {
+        const val FULL_WEIGHT = 1000
+    }
+}
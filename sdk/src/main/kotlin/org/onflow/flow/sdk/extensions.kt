@@ -2,9 +2,7 @@ package org.onflow.flow.sdk
 
 import com.google.common.io.BaseEncoding
 import com.google.protobuf.Timestamp
-import org.bouncycastle.jce.provider.BouncyCastleProvider
-import java.security.MessageDigest
-import java.security.Security
+import org.onflow.flow.sdk.impl.Digests
 import java.time.LocalDateTime
 import java.time.ZoneOffset
 
@@ -26,15 +24,9 @@ fun LocalDateTime.asTimestamp(): Timestamp = Timestamp
     .setNanos(this.nano)
     .build()
 
-fun ByteArray.sha3256Hash(): ByteArray {
-    Security.addProvider(BouncyCastleProvider())
-    return MessageDigest.getInstance("SHA3-256", BouncyCastleProvider.PROVIDER_NAME).digest(this)
-}
+fun ByteArray.sha3256Hash(): ByteArray = Digests.sha3256(this)
 
-fun ByteArray.sha2256Hash(): ByteArray {
-    Security.addProvider(BouncyCastleProvider())
-    return MessageDigest.getInstance("SHA2-256", "BC").digest(this)
-}
+fun ByteArray.sha2256Hash(): ByteArray = Digests.sha2256(this)
 
 fun fixedSize(bytes: ByteArray, size: Int): ByteArray {
     if (bytes.size > size) {
@@ -0,0 +1,36 @@
+package org.onflow.flow.sdk.impl
+
+import io.grpc.Status
+import io.grpc.StatusException
+import io.grpc.StatusRuntimeException
+import org.onflow.flow.sdk.FlowAccessApi
+
+internal object AccessApiErrors {
+    // codes that point at the access node (overloaded, restarting, lagging) rather than at the request itself
+    private val NODE_FAILURE_CODES = setOf(
+        Status.Code.UNAVAILABLE,
+        Status.Code.DEADLINE_EXCEEDED,
+        Status.Code.RESOURCE_EXHAUSTED,
+        Status.Code.ABORTED,
+        Status.Code.INTERNAL,
+        Status.Code.UNKNOWN
+    )
+
+    fun statusOf(throwable: Throwable?): Status? {
+        var current = throwable
+        while (current != null) {
+            when (current) {
+                is StatusRuntimeException -> return current.status
+                is StatusException -> return current.status
+            }
+            current = current.cause
+        }
+        return null
+    }
+
+    fun statusOf(response: FlowAccessApi.AccessApiCallResponse<*>): Status? =
+        (response as? FlowAccessApi.AccessApiCallResponse.Error)?.let { statusOf(it.throwable) }
+
+    fun isNodeFailure(response: FlowAccessApi.AccessApiCallResponse<*>): Boolean =
+        statusOf(response)?.code in NODE_FAILURE_CODES
+}
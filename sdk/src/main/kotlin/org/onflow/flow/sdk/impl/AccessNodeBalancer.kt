@@ -0,0 +1,117 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Live view of the measurements a load balanced client keeps for one access node.
+ */
+class AccessNodeStats internal constructor(
+    val index: Int
+) {
+    private val inFlight = AtomicInteger()
+
+    @Volatile
+    var latencyNanos: Double = 0.0
+        private set
+
+    @Volatile
+    var errorRate: Double = 0.0
+        private set
+
+    @Volatile
+    var sealedHeight: Long = -1
+        private set
+
+    val pendingCalls: Int get() = inFlight.get()
+
+    internal fun begin(): Long {
+        inFlight.incrementAndGet()
+        return System.nanoTime()
+    }
+
+    @Synchronized
+    internal fun end(startNanos: Long, failed: Boolean, decay: Double) {
+        inFlight.decrementAndGet()
+        val elapsed = (System.nanoTime() - startNanos).toDouble()
+        latencyNanos = if (latencyNanos == 0.0) elapsed else latencyNanos + decay * (elapsed - latencyNanos)
+        errorRate += decay * ((if (failed) 1.0 else 0.0) - errorRate)
+    }
+
+    // an abandoned call says nothing about the node, only its in-flight slot is released
+    internal fun cancel() {
+        inFlight.decrementAndGet()
+    }
+
+    @Synchronized
+    internal fun observeSealedHeight(height: Long) {
+        if (height > sealedHeight) {
+            sealedHeight = height
+        }
+    }
+}
+
+internal class AccessNodeBalancer(
+    size: Int,
+    private val options: LoadBalancingOptions
+) {
+    companion object {
+        // keeps unmeasured or very fast nodes comparable instead of collapsing their score to zero
+        private const val LATENCY_FLOOR_NANOS = 1_000_000.0
+    }
+
+    init {
+        require(size > 0) { "at least one access node is required" }
+    }
+
+    val stats: List<AccessNodeStats> = List(size) { AccessNodeStats(it) }
+
+    fun select(exclude: Int = -1): Int {
+        val candidates = eligible(exclude)
+        if (candidates.size == 1) {
+            return candidates[0]
+        }
+        val random = ThreadLocalRandom.current()
+        val first = random.nextInt(candidates.size)
+        var second = random.nextInt(candidates.size - 1)
+        if (second >= first) {
+            second++
+        }
+        val a = candidates[first]
+        val b = candidates[second]
+        return if (score(stats[a]) <= score(stats[b])) a else b
+    }
+
+    fun begin(index: Int): Long = stats[index].begin()
+
+    fun end(index: Int, startNanos: Long, response: FlowAccessApi.AccessApiCallResponse<*>?) {
+        val failed = response == null || AccessApiErrors.isNodeFailure(response)
+        stats[index].end(startNanos, failed, options.decay)
+    }
+
+    fun cancel(index: Int) = stats[index].cancel()
+
+    fun observe(index: Int, method: AccessApiMethod, arguments: List<Any?>, response: FlowAccessApi.AccessApiCallResponse<*>?) {
+        if (response !is FlowAccessApi.AccessApiCallResponse.Success || arguments.firstOrNull() != true) {
+            return
+        }
+        val height = when (method) {
+            AccessApiMethod.GET_LATEST_BLOCK_HEADER -> (response.data as? FlowBlockHeader)?.height
+            AccessApiMethod.GET_LATEST_BLOCK -> (response.data as? FlowBlock)?.height
+            else -> null
+        }
+        height?.let { stats[index].observeSealedHeight(it) }
+    }
+
+    private fun eligible(exclude: Int): List<Int> {
+        val tip = stats.maxOf { it.sealedHeight }
+        return stats
+            .filter { it.index != exclude && (it.sealedHeight < 0 || tip - it.sealedHeight <= options.maxSealedHeightLag) }
+            .map { it.index }
+            .ifEmpty { stats.indices.filter { it != exclude }.ifEmpty { stats.indices.toList() } }
+    }
+
+    private fun score(node: AccessNodeStats): Double =
+        (node.latencyNanos + LATENCY_FLOOR_NANOS) * (node.pendingCalls + 1) * (1.0 + options.errorPenalty * node.errorRate)
+}
@@ -0,0 +1,97 @@
+package org.onflow.flow.sdk.impl
+
+import io.grpc.Status
+import org.onflow.flow.sdk.*
+import java.util.EnumMap
+
+internal class AdaptiveRateLimiter(
+    private val options: RateLimitOptions
+) {
+    companion object {
+        private const val NANOS_PER_SECOND = 1_000_000_000.0
+    }
+
+    /**
+     * Token bucket whose tokens may go negative: a negative balance is the queue of callers that already reserved a
+     * future token, so waiting callers are served in the order they arrived.
+     */
+    private class Bucket(
+        private val maxRate: Double,
+        private val options: RateLimitOptions
+    ) {
+        private var rate = maxRate
+        private var tokens = options.burst
+        private var refilledAt = System.nanoTime()
+        private var decreasedAt = refilledAt - options.decreaseInterval.toNanos()
+
+        @Synchronized
+        fun reserve(maxWaitNanos: Long): Long? {
+            refill()
+            val wait = if (tokens >= 1.0) 0L else ((1.0 - tokens) / rate * NANOS_PER_SECOND).toLong()
+            if (wait > maxWaitNanos) {
+                return null
+            }
+            tokens -= 1.0
+            return wait
+        }
+
+        // hands back a reservation that was never used
+        @Synchronized
+        fun release() {
+            refill()
+            tokens = minOf(options.burst, tokens + 1.0)
+        }
+
+        @Synchronized
+        fun onThrottled() {
+            val now = System.nanoTime()
+            if (now - decreasedAt < options.decreaseInterval.toNanos()) {
+                return
+            }
+            refill()
+            decreasedAt = now
+            rate = maxOf(options.minRatePerSecond, rate * options.decreaseFactor)
+            tokens = minOf(tokens, 0.0)
+        }
+
+        val currentRate: Double
+            @Synchronized get() = rate
+
+        private fun refill() {
+            val now = System.nanoTime()
+            val seconds = (now - refilledAt) / NANOS_PER_SECOND
+            refilledAt = now
+            tokens = minOf(options.burst, tokens + seconds * rate)
+            rate = minOf(maxRate, rate + seconds * options.recoveryPerSecond)
+        }
+    }
+
+    private val buckets = EnumMap<AccessApiMethod, Bucket>(AccessApiMethod::class.java).apply {
+        AccessApiMethod.entries.filter { !it.streaming }.forEach { put(it, Bucket(options.rateFor(it), options)) }
+    }
+    private val maxWaitNanos = options.maxWait.toNanos()
+
+    /**
+     * Returns how long the caller has to wait before issuing [method] in nanoseconds, or null when the wait would
+     * exceed [RateLimitOptions.maxWait].
+     */
+    fun acquire(method: AccessApiMethod): Long? {
+        val bucket = buckets[method] ?: return 0L
+        return bucket.reserve(maxWaitNanos)
+    }
+
+    fun release(method: AccessApiMethod) {
+        buckets[method]?.release()
+    }
+
+    fun record(method: AccessApiMethod, response: FlowAccessApi.AccessApiCallResponse<*>?) {
+        if (response != null && AccessApiErrors.statusOf(response)?.code == Status.Code.RESOURCE_EXHAUSTED) {
+            buckets[method]?.onThrottled()
+        }
+    }
+
+    fun currentRate(method: AccessApiMethod): Double? = buckets[method]?.currentRate
+
+    fun rejected(method: AccessApiMethod): FlowAccessApi.AccessApiCallResponse.Error =
+        FlowAccessApi.AccessApiCallResponse.Error("Client-side rate limit for $method exceeded", RateLimitExceededException(method))
+}
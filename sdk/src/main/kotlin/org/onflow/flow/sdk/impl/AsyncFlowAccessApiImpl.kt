@@ -10,10 +10,17 @@ import io.grpc.ManagedChannel
 import org.onflow.protobuf.access.Access
 import org.onflow.protobuf.access.AccessAPIGrpc
 import java.io.Closeable
+import java.time.Duration
+import java.util.concurrent.CancellationException
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.function.BiFunction
 
-class AsyncFlowAccessApiImpl(
+class AsyncFlowAccessApiImpl @JvmOverloads constructor(
     private val api: AccessAPIGrpc.AccessAPIFutureStub,
+    // converts responses to models, by default on the gRPC thread that completed the call
+    private val decodeExecutor: Executor? = null
 ) : AsyncFlowAccessApi,
     Closeable {
     override fun close() {
@@ -23,13 +30,17 @@ class AsyncFlowAccessApiImpl(
         }
     }
 
+    override fun withDeadline(timeout: Duration): AsyncFlowAccessApi =
+        AsyncFlowAccessApiImpl(api.withDeadlineAfter(timeout.toNanos(), TimeUnit.NANOSECONDS), decodeExecutor)
+
     private fun <T, R> handleApiCall(
         apiCall: () -> ListenableFuture<T>,
         transform: (T) -> R,
         errorMessage: String
     ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<R>> =
         try {
-            completableFuture(apiCall()).handle { response, ex ->
+            val source = completableFuture(apiCall())
+            val decode = BiFunction<T, Throwable?, FlowAccessApi.AccessApiCallResponse<R>> { response, ex ->
                 if (ex != null) {
                     FlowAccessApi.AccessApiCallResponse.Error(errorMessage, ex)
                 } else {
@@ -40,6 +51,14 @@ class AsyncFlowAccessApiImpl(
                     }
                 }
             }
+            val result = if (decodeExecutor == null) source.handle(decode) else source.handleAsync(decode, decodeExecutor)
+            // handle() returns a dependent future, cancelling it has to be forwarded to the gRPC call explicitly
+            result.whenComplete { _, ex ->
+                if (ex is CancellationException) {
+                    source.cancel(true)
+                }
+            }
+            result
         } catch (e: Exception) {
             CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Error(errorMessage, e))
         }
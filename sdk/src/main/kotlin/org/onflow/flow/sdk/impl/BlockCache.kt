@@ -0,0 +1,160 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Least recently used cache of sealed blocks and block headers shared by the caching clients. Every entry is
+ * reachable by ID and by height, and the total estimated size of the cached values is kept below [maxBytes].
+ * Only heights at or below the highest sealed height seen so far are accepted, since anything above it can
+ * still be orphaned.
+ */
+internal class BlockCache(
+    private val maxBytes: Long,
+    sealedRefreshInterval: Duration
+) {
+    enum class Kind {
+        HEADER,
+        BLOCK,
+        FULL_BLOCK;
+
+        companion object {
+            fun of(fullBlockResponse: Boolean): Kind = if (fullBlockResponse) FULL_BLOCK else BLOCK
+        }
+    }
+
+    private data class IdKey(
+        val kind: Kind,
+        val id: FlowId
+    )
+
+    private data class HeightKey(
+        val kind: Kind,
+        val height: Long
+    )
+
+    private class Entry(
+        val value: Any,
+        val height: Long,
+        val weight: Long
+    )
+
+    init {
+        require(maxBytes > 0) { "maxBytes must be positive" }
+        require(!sealedRefreshInterval.isNegative) { "sealedRefreshInterval must not be negative" }
+    }
+
+    private val refreshIntervalNanos = sealedRefreshInterval.toNanos()
+    private val refreshedAt = AtomicLong(System.nanoTime() - refreshIntervalNanos)
+
+    // access ordered, so iteration starts at the least recently used entry
+    private val entries = LinkedHashMap<IdKey, Entry>(256, 0.75f, true)
+    private val heights = HashMap<HeightKey, FlowId>()
+    private var weight = 0L
+    private val sealed = AtomicLong(-1)
+    private val hitCount = AtomicLong()
+    private val missCount = AtomicLong()
+
+    val sealedHeight: Long get() = sealed.get()
+
+    val hits: Long get() = hitCount.get()
+
+    val misses: Long get() = missCount.get()
+
+    val bytes: Long get() = synchronized(this) { weight }
+
+    fun observeSealedHeight(height: Long) {
+        sealed.accumulateAndGet(height) { current, seen -> maxOf(current, seen) }
+    }
+
+    fun isSealed(height: Long): Boolean = height <= sealed.get()
+
+    /**
+     * Returns true for at most one caller per refresh interval, that caller asks the access node for the latest
+     * sealed height. Everyone else passes unsealed results through uncached instead of probing as well.
+     */
+    fun claimSealedRefresh(): Boolean {
+        val now = System.nanoTime()
+        val last = refreshedAt.get()
+        return now - last >= refreshIntervalNanos && refreshedAt.compareAndSet(last, now)
+    }
+
+    fun header(id: FlowId): FlowBlockHeader? = get(IdKey(Kind.HEADER, id))
+
+    fun header(height: Long): FlowBlockHeader? = get(HeightKey(Kind.HEADER, height))
+
+    fun block(id: FlowId, fullBlockResponse: Boolean): FlowBlock? = get(IdKey(Kind.of(fullBlockResponse), id))
+
+    fun block(height: Long, fullBlockResponse: Boolean): FlowBlock? = get(HeightKey(Kind.of(fullBlockResponse), height))
+
+    fun putHeader(header: FlowBlockHeader) {
+        put(Kind.HEADER, header.id, header.height, header, weigh(header))
+    }
+
+    fun putBlock(block: FlowBlock, fullBlockResponse: Boolean) {
+        put(Kind.of(fullBlockResponse), block.id, block.height, block, weigh(block))
+        // light blocks may come without a header, only reuse one that belongs to the block
+        if (block.blockHeader.id == block.id && block.blockHeader.height == block.height) {
+            putHeader(block.blockHeader)
+        }
+    }
+
+    private fun <T> get(key: HeightKey): T? {
+        val value: T? = synchronized(this) {
+            heights[key]?.let { id ->
+                @Suppress("UNCHECKED_CAST")
+                entries[IdKey(key.kind, id)]?.value as T?
+            }
+        }
+        (if (value == null) missCount else hitCount).incrementAndGet()
+        return value
+    }
+
+    private fun <T> get(key: IdKey): T? {
+        @Suppress("UNCHECKED_CAST")
+        val value = synchronized(this) { entries[key]?.value as T? }
+        (if (value == null) missCount else hitCount).incrementAndGet()
+        return value
+    }
+
+    private fun put(kind: Kind, id: FlowId, height: Long, value: Any, size: Long) {
+        if (!isSealed(height) || size > maxBytes) {
+            return
+        }
+        synchronized(this) {
+            entries.put(IdKey(kind, id), Entry(value, height, size))?.let { weight -= it.weight }
+            heights[HeightKey(kind, height)] = id
+            weight += size
+            val eldest = entries.entries.iterator()
+            while (weight > maxBytes && eldest.hasNext()) {
+                val (key, entry) = eldest.next()
+                eldest.remove()
+                heights.remove(HeightKey(key.kind, entry.height), key.id)
+                weight -= entry.weight
+            }
+        }
+    }
+
+    private fun weigh(header: FlowBlockHeader): Long =
+        ENTRY_OVERHEAD + header.payloadHash.size + header.parentVoterSigData.size + header.proposerSigData.size +
+            header.parentVoterIndices.size + header.lastViewTc.signerIndices.size + header.lastViewTc.sigData.size +
+            header.lastViewTc.highestQc.signerIndices.size + header.lastViewTc.highestQc.sigData.size +
+            header.lastViewTc.highQcViews.size * 8L
+
+    private fun weigh(block: FlowBlock): Long =
+        ENTRY_OVERHEAD + weigh(block.blockHeader) + block.signatures.sumOf { it.bytes.size + 16L } +
+            block.collectionGuarantees.sumOf { g -> ID_SIZE * 2 + g.signerIndices.size + g.signature.bytes.size + g.signatures.sumOf { it.bytes.size + 16L } } +
+            block.blockSeals.sumOf { s ->
+                ID_SIZE * 3 + s.finalState.size + (s.executionReceiptSignatures + s.resultApprovalSignatures).sumOf { it.bytes.size + 16L } +
+                    s.aggregatedApprovalSigs.size * ENTRY_OVERHEAD
+            } +
+            block.executionReceiptMetaList.sumOf { r -> ID_SIZE * 2 + r.executorSignature.bytes.size + r.spocks.sumOf { it.size + 16L } } +
+            block.executionResultList.sumOf { r -> ID_SIZE * 2 + (r.chunks.size + r.serviceEvents.size) * ENTRY_OVERHEAD }
+
+    private companion object {
+        // rough per object cost of headers, lists and wrappers on top of the raw byte arrays
+        const val ENTRY_OVERHEAD = 256L
+        const val ID_SIZE = 48L
+    }
+}
@@ -0,0 +1,127 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.time.Duration
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CompletableFuture
+
+/**
+ * [AsyncFlowAccessApi] that keeps sealed blocks and block headers in a size bounded LRU cache, see
+ * [CachingFlowAccessApi]. Cache hits complete immediately on the calling thread. Cancelling a returned future cancels
+ * the underlying call.
+ */
+class CachingAsyncFlowAccessApi private constructor(
+    private val api: AsyncFlowAccessApi,
+    private val cache: BlockCache
+) : ForwardingAsyncFlowAccessApi() {
+    @JvmOverloads
+    constructor(
+        api: AsyncFlowAccessApi,
+        maxBytes: Long = CachingFlowAccessApi.DEFAULT_MAX_BYTES,
+        sealedRefreshInterval: Duration = CachingFlowAccessApi.DEFAULT_SEALED_REFRESH_INTERVAL
+    ) : this(api, BlockCache(maxBytes, sealedRefreshInterval))
+
+    val hits: Long get() = cache.hits
+
+    val misses: Long get() = cache.misses
+
+    val cachedBytes: Long get() = cache.bytes
+
+    override fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (AsyncFlowAccessApi) -> CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>> = action(api)
+
+    override fun withDelegates(wrap: (AsyncFlowAccessApi) -> AsyncFlowAccessApi): ForwardingAsyncFlowAccessApi = CachingAsyncFlowAccessApi(wrap(api), cache)
+
+    override fun getLatestBlockHeader(sealed: Boolean): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlockHeader>> =
+        api.getLatestBlockHeader(sealed).let { source ->
+            source.whenComplete { response, _ ->
+                if (sealed && response is FlowAccessApi.AccessApiCallResponse.Success) {
+                    cache.observeSealedHeight(response.data.height)
+                    cache.putHeader(response.data)
+                }
+            }.cancelling(source)
+        }
+
+    override fun getBlockHeaderById(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlockHeader?>> =
+        cached(cache.header(id))
+            ?: api.getBlockHeaderById(id).let { source -> source.thenCompose { response -> store(response) { cache.putHeader(it) } }.cancelling(source) }
+
+    override fun getBlockHeaderByHeight(height: Long): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlockHeader?>> =
+        cached(cache.header(height))
+            ?: api.getBlockHeaderByHeight(height).let { source -> source.thenCompose { response -> store(response) { cache.putHeader(it) } }.cancelling(source) }
+
+    override fun getLatestBlock(sealed: Boolean, fullBlockResponse: Boolean): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlock>> =
+        api.getLatestBlock(sealed, fullBlockResponse).let { source ->
+            source.whenComplete { response, _ ->
+                if (sealed && response is FlowAccessApi.AccessApiCallResponse.Success) {
+                    cache.observeSealedHeight(response.data.height)
+                    cache.putBlock(response.data, fullBlockResponse)
+                }
+            }.cancelling(source)
+        }
+
+    override fun getBlockById(id: FlowId, fullBlockResponse: Boolean): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlock?>> =
+        cached(cache.block(id, fullBlockResponse))
+            ?: api.getBlockById(id, fullBlockResponse).let { source ->
+                source.thenCompose { response -> store(response) { cache.putBlock(it, fullBlockResponse) } }.cancelling(source)
+            }
+
+    override fun getBlockByHeight(height: Long, fullBlockResponse: Boolean): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlock?>> =
+        cached(cache.block(height, fullBlockResponse))
+            ?: api.getBlockByHeight(height, fullBlockResponse).let { source ->
+                source.thenCompose { response -> store(response) { cache.putBlock(it, fullBlockResponse) } }.cancelling(source)
+            }
+
+    override fun close() {
+        (api as? Closeable)?.close()
+    }
+
+    // whenComplete and thenCompose return dependent stages, cancelling one has to be forwarded to the gRPC call
+    private fun <T> CompletableFuture<T>.cancelling(source: CompletableFuture<*>): CompletableFuture<T> =
+        also { result ->
+            result.whenComplete { _, ex ->
+                if (ex is CancellationException) {
+                    source.cancel(true)
+                }
+            }
+        }
+
+    private fun <T : Any> cached(value: T?): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T?>>? =
+        value?.let { CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Success(it)) }
+
+    private fun <T> heightOf(value: T): Long = when (value) {
+        is FlowBlock -> value.height
+        is FlowBlockHeader -> value.height
+        else -> throw IllegalArgumentException("not a block or header: $value")
+    }
+
+    // caches the value once the sealed height confirms it is final, then hands the original response back
+    private fun <T : Any> store(
+        response: FlowAccessApi.AccessApiCallResponse<T?>,
+        put: (T) -> Unit
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T?>> {
+        val value = (if (response is FlowAccessApi.AccessApiCallResponse.Success) response.data else null)
+            ?: return CompletableFuture.completedFuture(response)
+        val height = heightOf(value)
+        if (cache.isSealed(height)) {
+            put(value)
+            return CompletableFuture.completedFuture(response)
+        }
+        if (!cache.claimSealedRefresh()) {
+            return CompletableFuture.completedFuture(response)
+        }
+        return api.getLatestBlockHeader(true).handle { latest, _ ->
+            if (latest is FlowAccessApi.AccessApiCallResponse.Success) {
+                cache.observeSealedHeight(latest.data.height)
+            }
+            if (cache.isSealed(height)) {
+                put(value)
+            }
+            response
+        }
+    }
+}
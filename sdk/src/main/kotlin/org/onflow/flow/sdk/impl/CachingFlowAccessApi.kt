@@ -0,0 +1,115 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.time.Duration
+
+/**
+ * [FlowAccessApi] that keeps sealed blocks and block headers in a size bounded LRU cache, so repeated lookups of the
+ * same height or ID are served without a network call. A block or header fetched by height is afterwards also found
+ * by its ID and the other way around. Results above the latest sealed height known to the cache are passed through
+ * without being cached; when such a result arrives the sealed height is refreshed before deciding, at most once per
+ * [sealedRefreshInterval], so callers reading at the tip do not pay for an extra call each time.
+ */
+class CachingFlowAccessApi private constructor(
+    private val api: FlowAccessApi,
+    private val cache: BlockCache
+) : ForwardingFlowAccessApi() {
+    @JvmOverloads
+    constructor(
+        api: FlowAccessApi,
+        maxBytes: Long = DEFAULT_MAX_BYTES,
+        sealedRefreshInterval: Duration = DEFAULT_SEALED_REFRESH_INTERVAL
+    ) : this(api, BlockCache(maxBytes, sealedRefreshInterval))
+
+    companion object {
+        const val DEFAULT_MAX_BYTES: Long = 64L * 1024 * 1024
+
+        @JvmField
+        val DEFAULT_SEALED_REFRESH_INTERVAL: Duration = Duration.ofSeconds(1)
+    }
+
+    val hits: Long get() = cache.hits
+
+    val misses: Long get() = cache.misses
+
+    val cachedBytes: Long get() = cache.bytes
+
+    override fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> FlowAccessApi.AccessApiCallResponse<T>
+    ): FlowAccessApi.AccessApiCallResponse<T> = action(api)
+
+    override fun <T> subscribe(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> T
+    ): T = action(api)
+
+    override fun withDelegates(wrap: (FlowAccessApi) -> FlowAccessApi): ForwardingFlowAccessApi = CachingFlowAccessApi(wrap(api), cache)
+
+    override fun getLatestBlockHeader(sealed: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader> {
+        val response = api.getLatestBlockHeader(sealed)
+        if (sealed && response is FlowAccessApi.AccessApiCallResponse.Success) {
+            cache.observeSealedHeight(response.data.height)
+            cache.putHeader(response.data)
+        }
+        return response
+    }
+
+    override fun getBlockHeaderById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader> =
+        cache.header(id)?.let { FlowAccessApi.AccessApiCallResponse.Success(it) }
+            ?: api.getBlockHeaderById(id).also { storeHeader(it) }
+
+    override fun getBlockHeaderByHeight(height: Long): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader> =
+        cache.header(height)?.let { FlowAccessApi.AccessApiCallResponse.Success(it) }
+            ?: api.getBlockHeaderByHeight(height).also { storeHeader(it) }
+
+    override fun getLatestBlock(sealed: Boolean, fullBlockResponse: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlock> {
+        val response = api.getLatestBlock(sealed, fullBlockResponse)
+        if (sealed && response is FlowAccessApi.AccessApiCallResponse.Success) {
+            cache.observeSealedHeight(response.data.height)
+            cache.putBlock(response.data, fullBlockResponse)
+        }
+        return response
+    }
+
+    override fun getBlockById(id: FlowId, fullBlockResponse: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlock> =
+        cache.block(id, fullBlockResponse)?.let { FlowAccessApi.AccessApiCallResponse.Success(it) }
+            ?: api.getBlockById(id, fullBlockResponse).also { storeBlock(it, fullBlockResponse) }
+
+    override fun getBlockByHeight(height: Long, fullBlockResponse: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlock> =
+        cache.block(height, fullBlockResponse)?.let { FlowAccessApi.AccessApiCallResponse.Success(it) }
+            ?: api.getBlockByHeight(height, fullBlockResponse).also { storeBlock(it, fullBlockResponse) }
+
+    override fun close() {
+        (api as? Closeable)?.close()
+    }
+
+    private fun storeHeader(response: FlowAccessApi.AccessApiCallResponse<FlowBlockHeader>) {
+        if (response is FlowAccessApi.AccessApiCallResponse.Success && refreshSealed(response.data.height)) {
+            cache.putHeader(response.data)
+        }
+    }
+
+    private fun storeBlock(response: FlowAccessApi.AccessApiCallResponse<FlowBlock>, fullBlockResponse: Boolean) {
+        if (response is FlowAccessApi.AccessApiCallResponse.Success && refreshSealed(response.data.height)) {
+            cache.putBlock(response.data, fullBlockResponse)
+        }
+    }
+
+    private fun refreshSealed(height: Long): Boolean {
+        if (cache.isSealed(height)) {
+            return true
+        }
+        if (!cache.claimSealedRefresh()) {
+            return false
+        }
+        val latest = api.getLatestBlockHeader(true)
+        if (latest is FlowAccessApi.AccessApiCallResponse.Success) {
+            cache.observeSealedHeight(latest.data.height)
+        }
+        return cache.isSealed(height)
+    }
+}
@@ -0,0 +1,92 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Single-flight table shared by the coalescing clients: the first caller for a method and argument list starts the
+ * call, everyone asking for the same thing while it is in flight, or within [sharingWindow] after it succeeded,
+ * receives the same response. Failed calls are never shared once they completed.
+ */
+internal class CallCoalescer(
+    private val sharingWindow: Duration
+) {
+    private data class CallKey(
+        val method: AccessApiMethod,
+        val arguments: List<Any?>
+    )
+
+    private class SharedCall(
+        val future: CompletableFuture<Any?> = CompletableFuture()
+    ) {
+        @Volatile
+        var completedAt: Long = 0
+    }
+
+    private val calls = ConcurrentHashMap<CallKey, SharedCall>()
+    private val windowNanos = sharingWindow.toNanos()
+    private val evictor: ScheduledExecutorService? =
+        if (windowNanos > 0) Schedulers.newDaemonScheduler("flow-access-coalescer") else null
+
+    fun <T> coalesce(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        start: () -> CompletableFuture<T>
+    ): CompletableFuture<T> {
+        val key = CallKey(method, arguments)
+        while (true) {
+            val existing = calls[key]
+            if (existing != null && isShareable(existing)) {
+                @Suppress("UNCHECKED_CAST")
+                return existing.future as CompletableFuture<T>
+            }
+            val call = SharedCall()
+            val claimed = if (existing == null) calls.putIfAbsent(key, call) == null else calls.replace(key, existing, call)
+            if (!claimed) {
+                continue
+            }
+            val source = try {
+                start()
+            } catch (e: Exception) {
+                calls.remove(key, call)
+                call.future.completeExceptionally(e)
+                throw e
+            }
+            source.whenComplete { response, ex ->
+                call.completedAt = System.nanoTime()
+                evict(key, call, ex == null && response !is FlowAccessApi.AccessApiCallResponse.Error)
+                if (ex == null) call.future.complete(response) else call.future.completeExceptionally(ex)
+            }
+            @Suppress("UNCHECKED_CAST")
+            return call.future as CompletableFuture<T>
+        }
+    }
+
+    fun close() {
+        evictor?.shutdownNow()
+        calls.clear()
+    }
+
+    private fun isShareable(call: SharedCall): Boolean {
+        if (!call.future.isDone) {
+            return true
+        }
+        return windowNanos > 0 && !call.future.isCompletedExceptionally && System.nanoTime() - call.completedAt < windowNanos
+    }
+
+    private fun evict(key: CallKey, call: SharedCall, succeeded: Boolean) {
+        if (!succeeded || evictor == null) {
+            calls.remove(key, call)
+            return
+        }
+        try {
+            evictor.schedule({ calls.remove(key, call) }, windowNanos, TimeUnit.NANOSECONDS)
+        } catch (e: Exception) {
+            calls.remove(key, call)
+        }
+    }
+}
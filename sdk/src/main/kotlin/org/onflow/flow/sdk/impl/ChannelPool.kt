@@ -0,0 +1,161 @@
+package org.onflow.flow.sdk.impl
+
+import io.grpc.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * [ManagedChannel] backed by several connections to the same endpoint. Unary calls go to the pooled channel with
+ * the fewest calls in flight, so the HTTP/2 stream limit of a single connection no longer caps concurrency. With
+ * [dedicatedStreamChannels] every server streaming call opens its own channel, which is shut down when the stream
+ * closes, keeping long-lived subscriptions off the connections used for unary calls.
+ */
+class ChannelPool(
+    size: Int,
+    private val dedicatedStreamChannels: Boolean,
+    private val channelFactory: () -> ManagedChannel
+) : ManagedChannel() {
+    private class PooledChannel(
+        val channel: ManagedChannel
+    ) {
+        val inFlight = AtomicInteger()
+    }
+
+    init {
+        require(size > 0) { "size must be positive" }
+    }
+
+    private val pooled: List<PooledChannel> = List(size) { PooledChannel(channelFactory()) }
+    private val streamChannels: MutableSet<ManagedChannel> = ConcurrentHashMap.newKeySet()
+
+    @Volatile
+    private var shutdown = false
+
+    val inFlightCalls: List<Int> get() = pooled.map { it.inFlight.get() }
+
+    override fun <ReqT, RespT> newCall(method: MethodDescriptor<ReqT, RespT>, callOptions: CallOptions): ClientCall<ReqT, RespT> =
+        if (dedicatedStreamChannels && method.type == MethodDescriptor.MethodType.SERVER_STREAMING) {
+            TrackedCall { openStreamCall(method, callOptions) }
+        } else {
+            TrackedCall { openPooledCall(method, callOptions) }
+        }
+
+    private fun <ReqT, RespT> openPooledCall(method: MethodDescriptor<ReqT, RespT>, callOptions: CallOptions): OpenedCall<ReqT, RespT> {
+        val target = pooled.minBy { it.inFlight.get() }
+        target.inFlight.incrementAndGet()
+        return OpenedCall(target.channel.newCall(method, callOptions)) { target.inFlight.decrementAndGet() }
+    }
+
+    private fun <ReqT, RespT> openStreamCall(method: MethodDescriptor<ReqT, RespT>, callOptions: CallOptions): OpenedCall<ReqT, RespT> {
+        if (shutdown) {
+            return openPooledCall(method, callOptions)
+        }
+        val channel = channelFactory()
+        streamChannels.add(channel)
+        // a concurrent shutdown may have gone over streamChannels before the add, so it would miss this channel
+        if (shutdown) {
+            channel.shutdownNow()
+        }
+        return OpenedCall(channel.newCall(method, callOptions)) {
+            streamChannels.remove(channel)
+            channel.shutdown()
+        }
+    }
+
+    override fun authority(): String = pooled[0].channel.authority()
+
+    override fun shutdown(): ManagedChannel {
+        shutdown = true
+        pooled.forEach { it.channel.shutdown() }
+        streamChannels.forEach { it.shutdown() }
+        return this
+    }
+
+    override fun shutdownNow(): ManagedChannel {
+        shutdown = true
+        pooled.forEach { it.channel.shutdownNow() }
+        streamChannels.forEach { it.shutdownNow() }
+        return this
+    }
+
+    override fun isShutdown(): Boolean = shutdown
+
+    override fun isTerminated(): Boolean = pooled.all { it.channel.isTerminated } && streamChannels.all { it.isTerminated }
+
+    override fun awaitTermination(timeout: Long, unit: TimeUnit): Boolean {
+        val deadline = System.nanoTime() + unit.toNanos(timeout)
+        for (channel in pooled.map { it.channel } + streamChannels) {
+            val remaining = deadline - System.nanoTime()
+            if (!channel.awaitTermination(maxOf(0L, remaining), TimeUnit.NANOSECONDS)) {
+                return false
+            }
+        }
+        return true
+    }
+
+    private class OpenedCall<ReqT, RespT>(
+        val call: ClientCall<ReqT, RespT>,
+        val onDone: () -> Unit
+    )
+
+    // opens the underlying call when it is started, so a call that is never started takes no in-flight slot and no
+    // channel, and runs onDone exactly once, when the call closes or when it fails to start
+    private class TrackedCall<ReqT, RespT>(
+        private val open: () -> OpenedCall<ReqT, RespT>
+    ) : ForwardingClientCall<ReqT, RespT>() {
+        private val done = AtomicBoolean()
+
+        @Volatile
+        private var opened: OpenedCall<ReqT, RespT>? = null
+        private var cancelledBeforeStart = false
+
+        override fun delegate(): ClientCall<ReqT, RespT> = checkNotNull(opened) { "call has not been started" }.call
+
+        override fun start(responseListener: ClientCall.Listener<RespT>, headers: Metadata) {
+            val target = synchronized(this) {
+                check(opened == null) { "call has already been started" }
+                if (cancelledBeforeStart) null else open().also { opened = it }
+            }
+            if (target == null) {
+                responseListener.onClose(Status.CANCELLED.withDescription("call was cancelled before it was started"), Metadata())
+                return
+            }
+            try {
+                target.call.start(
+                    object : ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+                        override fun onClose(status: Status, trailers: Metadata) {
+                            finish(target)
+                            super.onClose(status, trailers)
+                        }
+                    },
+                    headers
+                )
+            } catch (e: RuntimeException) {
+                finish(target)
+                throw e
+            }
+        }
+
+        override fun cancel(message: String?, cause: Throwable?) {
+            synchronized(this) {
+                if (opened == null) {
+                    cancelledBeforeStart = true
+                    return
+                }
+            }
+            super.cancel(message, cause)
+        }
+
+        override fun isReady(): Boolean = opened != null && super.isReady()
+
+        override fun getAttributes(): Attributes = if (opened != null) super.getAttributes() else Attributes.EMPTY
+
+        private fun finish(target: OpenedCall<ReqT, RespT>) {
+            if (done.compareAndSet(false, true)) {
+                target.onDone()
+            }
+        }
+    }
+}
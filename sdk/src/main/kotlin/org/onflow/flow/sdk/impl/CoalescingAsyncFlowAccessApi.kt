@@ -0,0 +1,42 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+
+/**
+ * [AsyncFlowAccessApi] that merges identical concurrent reads of [methods] into a single call to [api], see
+ * [CoalescingFlowAccessApi]. Every caller receives its own future, so cancelling one of them leaves the shared
+ * call running for the others.
+ */
+class CoalescingAsyncFlowAccessApi @JvmOverloads constructor(
+    private val api: AsyncFlowAccessApi,
+    sharingWindow: Duration = Duration.ZERO,
+    private val methods: Set<AccessApiMethod> = AccessApiMethod.IDEMPOTENT_UNARY
+) : ForwardingAsyncFlowAccessApi() {
+    private val coalescer = CallCoalescer(sharingWindow)
+
+    init {
+        require(methods.all { it.idempotent && !it.streaming }) { "only idempotent unary methods can be coalesced" }
+    }
+
+    override fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (AsyncFlowAccessApi) -> CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>> {
+        if (method !in methods) {
+            return action(api)
+        }
+        return coalescer.coalesce(method, arguments) { action(api) }.copy()
+    }
+
+    // calls under a deadline are not shared with calls that have none or another one
+    override fun withDelegates(wrap: (AsyncFlowAccessApi) -> AsyncFlowAccessApi): ForwardingAsyncFlowAccessApi = CoalescingAsyncFlowAccessApi(wrap(api), methods = emptySet())
+
+    override fun close() {
+        coalescer.close()
+        (api as? Closeable)?.close()
+    }
+}
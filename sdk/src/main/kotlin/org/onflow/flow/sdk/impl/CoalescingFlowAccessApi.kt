@@ -0,0 +1,54 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+
+/**
+ * [FlowAccessApi] that merges identical concurrent reads of [methods] into a single call to [api]. A successful
+ * response is also handed to identical calls made within [sharingWindow] after it arrived; zero only shares calls
+ * that are still in flight.
+ */
+class CoalescingFlowAccessApi @JvmOverloads constructor(
+    private val api: FlowAccessApi,
+    sharingWindow: Duration = Duration.ZERO,
+    private val methods: Set<AccessApiMethod> = AccessApiMethod.IDEMPOTENT_UNARY
+) : ForwardingFlowAccessApi() {
+    private val coalescer = CallCoalescer(sharingWindow)
+
+    init {
+        require(methods.all { it.idempotent && !it.streaming }) { "only idempotent unary methods can be coalesced" }
+    }
+
+    override fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> FlowAccessApi.AccessApiCallResponse<T>
+    ): FlowAccessApi.AccessApiCallResponse<T> {
+        if (method !in methods) {
+            return action(api)
+        }
+        val shared = coalescer.coalesce(method, arguments) { CompletableFuture.completedFuture(action(api)) }
+        return try {
+            shared.join()
+        } catch (e: CompletionException) {
+            throw e.cause ?: e
+        }
+    }
+
+    override fun <T> subscribe(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> T
+    ): T = action(api)
+
+    // calls under a deadline are not shared with calls that have none or another one
+    override fun withDelegates(wrap: (FlowAccessApi) -> FlowAccessApi): ForwardingFlowAccessApi = CoalescingFlowAccessApi(wrap(api), methods = emptySet())
+
+    override fun close() {
+        coalescer.close()
+        (api as? Closeable)?.close()
+    }
+}
@@ -0,0 +1,232 @@
+package org.onflow.flow.sdk.impl
+
+import com.google.protobuf.ByteString
+import io.grpc.stub.ClientCallStreamObserver
+import io.grpc.stub.ClientResponseObserver
+import io.grpc.stub.StreamObserver
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.future.await
+import org.onflow.flow.sdk.*
+import org.onflow.protobuf.executiondata.ExecutionDataAPIGrpc
+import org.onflow.protobuf.executiondata.Executiondata
+import java.io.Closeable
+import java.time.Duration
+import kotlinx.coroutines.flow.Flow as KotlinFlow
+
+/**
+ * [CoroutineFlowAccessApi] that awaits the futures of [api] and streams subscriptions from the asynchronous
+ * execution data stub, so no thread is parked while a call or a subscription is pending.
+ */
+class CoroutineFlowAccessApiImpl(
+    private val api: AsyncFlowAccessApi,
+    private val executionDataApi: ExecutionDataAPIGrpc.ExecutionDataAPIStub
+) : CoroutineFlowAccessApi,
+    Closeable {
+    override fun close() {
+        (api as? Closeable)?.close()
+    }
+
+    // the execution data stub only serves subscriptions, which keep running past the deadline
+    override fun withDeadline(timeout: Duration): CoroutineFlowAccessApi =
+        CoroutineFlowAccessApiImpl(api.withDeadline(timeout), executionDataApi)
+
+    private fun <T : Any> FlowAccessApi.AccessApiCallResponse<T?>.orNotFound(message: String): FlowAccessApi.AccessApiCallResponse<T> =
+        when (this) {
+            is FlowAccessApi.AccessApiCallResponse.Success -> data?.let { FlowAccessApi.AccessApiCallResponse.Success(it) } ?: FlowAccessApi.AccessApiCallResponse.Error(message)
+            is FlowAccessApi.AccessApiCallResponse.Error -> this
+        }
+
+    private fun <T, R, M> stream(
+        request: T,
+        call: (T, StreamObserver<R>) -> Unit,
+        responseMapper: (R) -> M
+    ): KotlinFlow<M> =
+        callbackFlow {
+            var requestStream: ClientCallStreamObserver<T>? = null
+            call(
+                request,
+                object : ClientResponseObserver<T, R> {
+                    override fun beforeStart(stream: ClientCallStreamObserver<T>) {
+                        requestStream = stream
+                    }
+
+                    override fun onNext(value: R) {
+                        try {
+                            trySend(responseMapper(value))
+                        } catch (e: Exception) {
+                            requestStream?.cancel("Failed to map subscription response", e)
+                            close(e)
+                        }
+                    }
+
+                    override fun onError(t: Throwable) {
+                        close(t)
+                    }
+
+                    override fun onCompleted() {
+                        close()
+                    }
+                }
+            )
+            awaitClose { requestStream?.cancel("Subscription cancelled", null) }
+        }.buffer(Channel.UNLIMITED)
+
+    override suspend fun ping(): FlowAccessApi.AccessApiCallResponse<Unit> =
+        api.ping().await()
+
+    override suspend fun getAccountKeyAtLatestBlock(address: FlowAddress, keyIndex: Int): FlowAccessApi.AccessApiCallResponse<FlowAccountKey> =
+        api.getAccountKeyAtLatestBlock(address, keyIndex).await()
+
+    override suspend fun getAccountKeyAtBlockHeight(address: FlowAddress, keyIndex: Int, height: Long): FlowAccessApi.AccessApiCallResponse<FlowAccountKey> =
+        api.getAccountKeyAtBlockHeight(address, keyIndex, height).await()
+
+    override suspend fun getAccountKeysAtLatestBlock(address: FlowAddress): FlowAccessApi.AccessApiCallResponse<List<FlowAccountKey>> =
+        api.getAccountKeysAtLatestBlock(address).await()
+
+    override suspend fun getAccountKeysAtBlockHeight(address: FlowAddress, height: Long): FlowAccessApi.AccessApiCallResponse<List<FlowAccountKey>> =
+        api.getAccountKeysAtBlockHeight(address, height).await()
+
+    override suspend fun getLatestBlockHeader(sealed: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader> =
+        api.getLatestBlockHeader(sealed).await()
+
+    override suspend fun getBlockHeaderById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader> =
+        api.getBlockHeaderById(id).await().orNotFound("Block header not found")
+
+    override suspend fun getBlockHeaderByHeight(height: Long): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader> =
+        api.getBlockHeaderByHeight(height).await().orNotFound("Block header not found")
+
+    override suspend fun getLatestBlock(sealed: Boolean, fullBlockResponse: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlock> =
+        api.getLatestBlock(sealed, fullBlockResponse).await()
+
+    override suspend fun getAccountBalanceAtLatestBlock(address: FlowAddress): FlowAccessApi.AccessApiCallResponse<Long> =
+        api.getAccountBalanceAtLatestBlock(address).await()
+
+    override suspend fun getAccountBalanceAtBlockHeight(address: FlowAddress, height: Long): FlowAccessApi.AccessApiCallResponse<Long> =
+        api.getAccountBalanceAtBlockHeight(address, height).await()
+
+    override suspend fun getBlockById(id: FlowId, fullBlockResponse: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlock> =
+        api.getBlockById(id, fullBlockResponse).await().orNotFound("Block not found")
+
+    override suspend fun getBlockByHeight(height: Long, fullBlockResponse: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlock> =
+        api.getBlockByHeight(height, fullBlockResponse).await().orNotFound("Block not found")
+
+    override suspend fun getCollectionById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowCollection> =
+        api.getCollectionById(id).await().orNotFound("Collection not found")
+
+    override suspend fun getFullCollectionById(id: FlowId): FlowAccessApi.AccessApiCallResponse<List<FlowTransaction>> =
+        api.getFullCollectionById(id).await()
+
+    override suspend fun sendTransaction(transaction: FlowTransaction): FlowAccessApi.AccessApiCallResponse<FlowId> =
+        api.sendTransaction(transaction).await()
+
+    override suspend fun getTransactionById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransaction> =
+        api.getTransactionById(id).await().orNotFound("Transaction not found")
+
+    override suspend fun getTransactionResultById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransactionResult> =
+        api.getTransactionResultById(id).await().orNotFound("Transaction result not found")
+
+    override suspend fun getSystemTransaction(blockId: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransaction> =
+        api.getSystemTransaction(blockId).await().orNotFound("System transaction not found")
+
+    override suspend fun getSystemTransactionResult(blockId: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransactionResult> =
+        api.getSystemTransactionResult(blockId).await().orNotFound("System transaction result not found")
+
+    override suspend fun getTransactionResultByIndex(blockId: FlowId, index: Int): FlowAccessApi.AccessApiCallResponse<FlowTransactionResult> =
+        api.getTransactionResultByIndex(blockId, index).await()
+
+    @Suppress("DEPRECATION")
+    @Deprecated(
+        message = "Behaves identically to getAccountAtLatestBlock",
+        replaceWith = ReplaceWith("getAccountAtLatestBlock")
+    )
+    override suspend fun getAccountByAddress(address: FlowAddress): FlowAccessApi.AccessApiCallResponse<FlowAccount> =
+        api.getAccountByAddress(address).await()
+
+    override suspend fun getAccountAtLatestBlock(address: FlowAddress): FlowAccessApi.AccessApiCallResponse<FlowAccount> =
+        api.getAccountAtLatestBlock(address).await()
+
+    override suspend fun getAccountByBlockHeight(address: FlowAddress, height: Long): FlowAccessApi.AccessApiCallResponse<FlowAccount> =
+        api.getAccountByBlockHeight(address, height).await()
+
+    override suspend fun executeScriptAtLatestBlock(script: FlowScript, arguments: Iterable<ByteString>): FlowAccessApi.AccessApiCallResponse<FlowScriptResponse> =
+        api.executeScriptAtLatestBlock(script, arguments).await()
+
+    override suspend fun executeScriptAtBlockId(script: FlowScript, blockId: FlowId, arguments: Iterable<ByteString>): FlowAccessApi.AccessApiCallResponse<FlowScriptResponse> =
+        api.executeScriptAtBlockId(script, blockId, arguments).await()
+
+    override suspend fun executeScriptAtBlockHeight(script: FlowScript, height: Long, arguments: Iterable<ByteString>): FlowAccessApi.AccessApiCallResponse<FlowScriptResponse> =
+        api.executeScriptAtBlockHeight(script, height, arguments).await()
+
+    override suspend fun getEventsForHeightRange(type: String, range: ClosedRange<Long>): FlowAccessApi.AccessApiCallResponse<List<FlowEventResult>> =
+        api.getEventsForHeightRange(type, range).await()
+
+    override suspend fun getEventsForBlockIds(type: String, ids: Set<FlowId>): FlowAccessApi.AccessApiCallResponse<List<FlowEventResult>> =
+        api.getEventsForBlockIds(type, ids).await()
+
+    override suspend fun getNetworkParameters(): FlowAccessApi.AccessApiCallResponse<FlowChainId> =
+        api.getNetworkParameters().await()
+
+    override suspend fun getLatestProtocolStateSnapshot(): FlowAccessApi.AccessApiCallResponse<FlowSnapshot> =
+        api.getLatestProtocolStateSnapshot().await()
+
+    override suspend fun getProtocolStateSnapshotByBlockId(blockId: FlowId): FlowAccessApi.AccessApiCallResponse<FlowSnapshot> =
+        api.getProtocolStateSnapshotByBlockId(blockId).await()
+
+    override suspend fun getProtocolStateSnapshotByHeight(height: Long): FlowAccessApi.AccessApiCallResponse<FlowSnapshot> =
+        api.getProtocolStateSnapshotByHeight(height).await()
+
+    override suspend fun getNodeVersionInfo(): FlowAccessApi.AccessApiCallResponse<FlowNodeVersionInfo> =
+        api.getNodeVersionInfo().await()
+
+    override suspend fun getTransactionsByBlockId(id: FlowId): FlowAccessApi.AccessApiCallResponse<List<FlowTransaction>> =
+        api.getTransactionsByBlockId(id).await()
+
+    override suspend fun getTransactionResultsByBlockId(id: FlowId): FlowAccessApi.AccessApiCallResponse<List<FlowTransactionResult>> =
+        api.getTransactionResultsByBlockId(id).await()
+
+    override suspend fun getExecutionResultByBlockId(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowExecutionResult> =
+        api.getExecutionResultByBlockId(id).await().orNotFound("Execution result not found")
+
+    override fun subscribeExecutionDataByBlockId(blockId: FlowId): KotlinFlow<FlowBlockExecutionData> =
+        stream(
+            request = Executiondata.SubscribeExecutionDataFromStartBlockIDRequest
+                .newBuilder()
+                .setStartBlockId(blockId.byteStringValue)
+                .build(),
+            call = executionDataApi::subscribeExecutionDataFromStartBlockID,
+            responseMapper = { FlowBlockExecutionData.of(it.blockExecutionData) }
+        )
+
+    override fun subscribeExecutionDataByBlockHeight(height: Long): KotlinFlow<FlowBlockExecutionData> =
+        stream(
+            request = Executiondata.SubscribeExecutionDataFromStartBlockHeightRequest
+                .newBuilder()
+                .setStartBlockHeight(height)
+                .build(),
+            call = executionDataApi::subscribeExecutionDataFromStartBlockHeight,
+            responseMapper = { FlowBlockExecutionData.of(it.blockExecutionData) }
+        )
+
+    override fun subscribeEventsByBlockId(blockId: FlowId): KotlinFlow<List<FlowEvent>> =
+        stream(
+            request = Executiondata.SubscribeEventsFromStartBlockIDRequest
+                .newBuilder()
+                .setStartBlockId(blockId.byteStringValue)
+                .build(),
+            call = executionDataApi::subscribeEventsFromStartBlockID,
+            responseMapper = { it.eventsList.map { event -> FlowEvent.of(event) } }
+        )
+
+    override fun subscribeEventsByBlockHeight(height: Long): KotlinFlow<List<FlowEvent>> =
+        stream(
+            request = Executiondata.SubscribeEventsFromStartHeightRequest
+                .newBuilder()
+                .setStartBlockHeight(height)
+                .build(),
+            call = executionDataApi::subscribeEventsFromStartHeight,
+            responseMapper = { it.eventsList.map { event -> FlowEvent.of(event) } }
+        )
+}
@@ -0,0 +1,77 @@
+package org.onflow.flow.sdk.impl
+
+import io.grpc.*
+import org.onflow.flow.sdk.*
+import org.onflow.protobuf.access.AccessAPIGrpc
+import org.onflow.protobuf.executiondata.ExecutionDataAPIGrpc
+import java.util.concurrent.TimeUnit
+
+/**
+ * Adds the configured [AccessApiDeadlines] to calls that do not carry a deadline of their own yet. Methods that
+ * are not part of [AccessApiMethod] pass through unchanged.
+ */
+internal class DeadlineInterceptor(
+    private val deadlines: AccessApiDeadlines
+) : ClientInterceptor {
+    companion object {
+        private val GRPC_METHODS: Map<AccessApiMethod, MethodDescriptor<*, *>> = mapOf(
+            AccessApiMethod.PING to AccessAPIGrpc.getPingMethod(),
+            AccessApiMethod.GET_ACCOUNT_KEY_AT_LATEST_BLOCK to AccessAPIGrpc.getGetAccountKeyAtLatestBlockMethod(),
+            AccessApiMethod.GET_ACCOUNT_KEY_AT_BLOCK_HEIGHT to AccessAPIGrpc.getGetAccountKeyAtBlockHeightMethod(),
+            AccessApiMethod.GET_ACCOUNT_KEYS_AT_LATEST_BLOCK to AccessAPIGrpc.getGetAccountKeysAtLatestBlockMethod(),
+            AccessApiMethod.GET_ACCOUNT_KEYS_AT_BLOCK_HEIGHT to AccessAPIGrpc.getGetAccountKeysAtBlockHeightMethod(),
+            AccessApiMethod.GET_LATEST_BLOCK_HEADER to AccessAPIGrpc.getGetLatestBlockHeaderMethod(),
+            AccessApiMethod.GET_BLOCK_HEADER_BY_ID to AccessAPIGrpc.getGetBlockHeaderByIDMethod(),
+            AccessApiMethod.GET_BLOCK_HEADER_BY_HEIGHT to AccessAPIGrpc.getGetBlockHeaderByHeightMethod(),
+            AccessApiMethod.GET_LATEST_BLOCK to AccessAPIGrpc.getGetLatestBlockMethod(),
+            AccessApiMethod.GET_BLOCK_BY_ID to AccessAPIGrpc.getGetBlockByIDMethod(),
+            AccessApiMethod.GET_ACCOUNT_BALANCE_AT_LATEST_BLOCK to AccessAPIGrpc.getGetAccountBalanceAtLatestBlockMethod(),
+            AccessApiMethod.GET_ACCOUNT_BALANCE_AT_BLOCK_HEIGHT to AccessAPIGrpc.getGetAccountBalanceAtBlockHeightMethod(),
+            AccessApiMethod.GET_BLOCK_BY_HEIGHT to AccessAPIGrpc.getGetBlockByHeightMethod(),
+            AccessApiMethod.GET_COLLECTION_BY_ID to AccessAPIGrpc.getGetCollectionByIDMethod(),
+            AccessApiMethod.GET_FULL_COLLECTION_BY_ID to AccessAPIGrpc.getGetFullCollectionByIDMethod(),
+            AccessApiMethod.SEND_TRANSACTION to AccessAPIGrpc.getSendTransactionMethod(),
+            AccessApiMethod.GET_TRANSACTION_BY_ID to AccessAPIGrpc.getGetTransactionMethod(),
+            AccessApiMethod.GET_TRANSACTION_RESULT_BY_ID to AccessAPIGrpc.getGetTransactionResultMethod(),
+            AccessApiMethod.GET_SYSTEM_TRANSACTION to AccessAPIGrpc.getGetSystemTransactionMethod(),
+            AccessApiMethod.GET_SYSTEM_TRANSACTION_RESULT to AccessAPIGrpc.getGetSystemTransactionResultMethod(),
+            AccessApiMethod.GET_TRANSACTION_RESULT_BY_INDEX to AccessAPIGrpc.getGetTransactionResultByIndexMethod(),
+            AccessApiMethod.GET_ACCOUNT_BY_ADDRESS to AccessAPIGrpc.getGetAccountMethod(),
+            AccessApiMethod.GET_ACCOUNT_AT_LATEST_BLOCK to AccessAPIGrpc.getGetAccountAtLatestBlockMethod(),
+            AccessApiMethod.GET_ACCOUNT_BY_BLOCK_HEIGHT to AccessAPIGrpc.getGetAccountAtBlockHeightMethod(),
+            AccessApiMethod.EXECUTE_SCRIPT_AT_LATEST_BLOCK to AccessAPIGrpc.getExecuteScriptAtLatestBlockMethod(),
+            AccessApiMethod.EXECUTE_SCRIPT_AT_BLOCK_ID to AccessAPIGrpc.getExecuteScriptAtBlockIDMethod(),
+            AccessApiMethod.EXECUTE_SCRIPT_AT_BLOCK_HEIGHT to AccessAPIGrpc.getExecuteScriptAtBlockHeightMethod(),
+            AccessApiMethod.GET_EVENTS_FOR_HEIGHT_RANGE to AccessAPIGrpc.getGetEventsForHeightRangeMethod(),
+            AccessApiMethod.GET_EVENTS_FOR_BLOCK_IDS to AccessAPIGrpc.getGetEventsForBlockIDsMethod(),
+            AccessApiMethod.GET_NETWORK_PARAMETERS to AccessAPIGrpc.getGetNetworkParametersMethod(),
+            AccessApiMethod.GET_LATEST_PROTOCOL_STATE_SNAPSHOT to AccessAPIGrpc.getGetLatestProtocolStateSnapshotMethod(),
+            AccessApiMethod.GET_PROTOCOL_STATE_SNAPSHOT_BY_BLOCK_ID to AccessAPIGrpc.getGetProtocolStateSnapshotByBlockIDMethod(),
+            AccessApiMethod.GET_PROTOCOL_STATE_SNAPSHOT_BY_HEIGHT to AccessAPIGrpc.getGetProtocolStateSnapshotByHeightMethod(),
+            AccessApiMethod.GET_NODE_VERSION_INFO to AccessAPIGrpc.getGetNodeVersionInfoMethod(),
+            AccessApiMethod.GET_TRANSACTIONS_BY_BLOCK_ID to AccessAPIGrpc.getGetTransactionsByBlockIDMethod(),
+            AccessApiMethod.GET_TRANSACTION_RESULTS_BY_BLOCK_ID to AccessAPIGrpc.getGetTransactionResultsByBlockIDMethod(),
+            AccessApiMethod.GET_EXECUTION_RESULT_BY_BLOCK_ID to AccessAPIGrpc.getGetExecutionResultByIDMethod(),
+            AccessApiMethod.SUBSCRIBE_EXECUTION_DATA_BY_BLOCK_ID to ExecutionDataAPIGrpc.getSubscribeExecutionDataFromStartBlockIDMethod(),
+            AccessApiMethod.SUBSCRIBE_EXECUTION_DATA_BY_BLOCK_HEIGHT to ExecutionDataAPIGrpc.getSubscribeExecutionDataFromStartBlockHeightMethod(),
+            AccessApiMethod.SUBSCRIBE_EVENTS_BY_BLOCK_ID to ExecutionDataAPIGrpc.getSubscribeEventsFromStartBlockIDMethod(),
+            AccessApiMethod.SUBSCRIBE_EVENTS_BY_BLOCK_HEIGHT to ExecutionDataAPIGrpc.getSubscribeEventsFromStartHeightMethod()
+        )
+    }
+
+    private val timeouts: Map<String, Long> = GRPC_METHODS
+        .mapNotNull { (method, descriptor) -> deadlines.deadlineFor(method)?.let { descriptor.fullMethodName to it.toNanos() } }
+        .toMap()
+
+    override fun <ReqT, RespT> interceptCall(
+        method: MethodDescriptor<ReqT, RespT>,
+        callOptions: CallOptions,
+        next: Channel
+    ): ClientCall<ReqT, RespT> {
+        val timeout = timeouts[method.fullMethodName]
+        if (timeout == null || callOptions.deadline != null) {
+            return next.newCall(method, callOptions)
+        }
+        return next.newCall(method, callOptions.withDeadlineAfter(timeout, TimeUnit.NANOSECONDS))
+    }
+}
@@ -0,0 +1,51 @@
+package org.onflow.flow.sdk.impl
+
+import org.bouncycastle.crypto.Digest
+import org.bouncycastle.crypto.digests.KeccakDigest
+import org.bouncycastle.crypto.digests.SHA256Digest
+import org.bouncycastle.crypto.digests.SHA3Digest
+import org.bouncycastle.jce.provider.BouncyCastleProvider
+import java.security.Security
+
+/**
+ * One-shot hashing on digests kept per thread, so hashing neither looks up providers in the synchronized security
+ * registry nor allocates a digest per call. Outputs are the same as the BouncyCastle `MessageDigest`s.
+ */
+internal object Digests {
+    private val sha2256 = ThreadLocal.withInitial { SHA256Digest() }
+    private val sha3256 = ThreadLocal.withInitial { SHA3Digest(256) }
+    private val keccak256 = ThreadLocal.withInitial { KeccakDigest(256) }
+
+    init {
+        registerProvider()
+    }
+
+    /**
+     * Registers the BouncyCastle provider for the code that still goes through JCA lookups. Only the first call
+     * touches the registry.
+     */
+    @JvmStatic
+    fun registerProvider() {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(BouncyCastleProvider())
+        }
+    }
+
+    @JvmStatic
+    fun sha2256(bytes: ByteArray): ByteArray = hash(sha2256.get(), bytes)
+
+    @JvmStatic
+    fun sha3256(bytes: ByteArray): ByteArray = hash(sha3256.get(), bytes)
+
+    @JvmStatic
+    fun keccak256(bytes: ByteArray): ByteArray = hash(keccak256.get(), bytes)
+
+    private fun hash(digest: Digest, bytes: ByteArray): ByteArray {
+        // clears whatever an interrupted previous use of this thread's digest left behind
+        digest.reset()
+        digest.update(bytes, 0, bytes.size)
+        val output = ByteArray(digest.digestSize)
+        digest.doFinal(output, 0)
+        return output
+    }
+}
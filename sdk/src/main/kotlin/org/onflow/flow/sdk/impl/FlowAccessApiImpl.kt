@@ -11,6 +11,8 @@ import org.onflow.protobuf.access.AccessAPIGrpc
 import org.onflow.protobuf.executiondata.ExecutionDataAPIGrpc
 import org.onflow.protobuf.executiondata.Executiondata
 import java.io.Closeable
+import java.time.Duration
+import java.util.concurrent.TimeUnit
 
 class FlowAccessApiImpl(
     private val api: AccessAPIGrpc.AccessAPIBlockingStub,
@@ -24,6 +26,10 @@ class FlowAccessApiImpl(
         }
     }
 
+    // the execution data stub only serves subscriptions, which keep running past the deadline
+    override fun withDeadline(timeout: Duration): FlowAccessApi =
+        FlowAccessApiImpl(api.withDeadlineAfter(timeout.toNanos(), TimeUnit.NANOSECONDS), executionDataApi)
+
     private fun <T> executeWithResponse(action: () -> T, errorMessage: String): FlowAccessApi.AccessApiCallResponse<T> =
         try {
             FlowAccessApi.AccessApiCallResponse.Success(action())
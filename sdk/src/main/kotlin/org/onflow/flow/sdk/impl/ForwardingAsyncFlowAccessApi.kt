@@ -0,0 +1,162 @@
+package org.onflow.flow.sdk.impl
+
+import com.google.protobuf.ByteString
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Base class for [AsyncFlowAccessApi] decorators. Every call is routed through [call] together with the
+ * [AccessApiMethod] being invoked and its arguments, so that a decorator only has to implement its behaviour once.
+ */
+abstract class ForwardingAsyncFlowAccessApi :
+    AsyncFlowAccessApi,
+    Closeable {
+    protected abstract fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (AsyncFlowAccessApi) -> CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+
+    /**
+     * Returns a view of this decorator that forwards to the client it decorates, or each access node of a load
+     * balanced client, scoped to a deadline [timeout] from now. Retries and hedged calls share that deadline. The
+     * view keeps the behaviour and the state of this decorator, such as its cache, retry budget, rate limits and
+     * node statistics, closing it has no effect.
+     */
+    override fun withDeadline(timeout: Duration): AsyncFlowAccessApi = DeadlineView(withDelegates { it.withDeadline(timeout) })
+
+    /**
+     * Returns a decorator that shares the state of this one but forwards to the clients returned by [wrap] instead of
+     * the ones this decorator forwards to. Background work such as health checks stays with this decorator.
+     */
+    protected abstract fun withDelegates(wrap: (AsyncFlowAccessApi) -> AsyncFlowAccessApi): ForwardingAsyncFlowAccessApi
+
+    override fun ping(): CompletableFuture<FlowAccessApi.AccessApiCallResponse<Unit>> =
+        call(AccessApiMethod.PING, emptyList()) { it.ping() }
+
+    override fun getAccountKeyAtLatestBlock(address: FlowAddress, keyIndex: Int): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowAccountKey>> =
+        call(AccessApiMethod.GET_ACCOUNT_KEY_AT_LATEST_BLOCK, listOf(address, keyIndex)) { it.getAccountKeyAtLatestBlock(address, keyIndex) }
+
+    override fun getAccountKeyAtBlockHeight(address: FlowAddress, keyIndex: Int, height: Long): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowAccountKey>> =
+        call(AccessApiMethod.GET_ACCOUNT_KEY_AT_BLOCK_HEIGHT, listOf(address, keyIndex, height)) { it.getAccountKeyAtBlockHeight(address, keyIndex, height) }
+
+    override fun getAccountKeysAtLatestBlock(address: FlowAddress): CompletableFuture<FlowAccessApi.AccessApiCallResponse<List<FlowAccountKey>>> =
+        call(AccessApiMethod.GET_ACCOUNT_KEYS_AT_LATEST_BLOCK, listOf(address)) { it.getAccountKeysAtLatestBlock(address) }
+
+    override fun getAccountKeysAtBlockHeight(address: FlowAddress, height: Long): CompletableFuture<FlowAccessApi.AccessApiCallResponse<List<FlowAccountKey>>> =
+        call(AccessApiMethod.GET_ACCOUNT_KEYS_AT_BLOCK_HEIGHT, listOf(address, height)) { it.getAccountKeysAtBlockHeight(address, height) }
+
+    override fun getLatestBlockHeader(sealed: Boolean): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlockHeader>> =
+        call(AccessApiMethod.GET_LATEST_BLOCK_HEADER, listOf(sealed)) { it.getLatestBlockHeader(sealed) }
+
+    override fun getBlockHeaderById(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlockHeader?>> =
+        call(AccessApiMethod.GET_BLOCK_HEADER_BY_ID, listOf(id)) { it.getBlockHeaderById(id) }
+
+    override fun getBlockHeaderByHeight(height: Long): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlockHeader?>> =
+        call(AccessApiMethod.GET_BLOCK_HEADER_BY_HEIGHT, listOf(height)) { it.getBlockHeaderByHeight(height) }
+
+    override fun getLatestBlock(sealed: Boolean, fullBlockResponse: Boolean): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlock>> =
+        call(AccessApiMethod.GET_LATEST_BLOCK, listOf(sealed, fullBlockResponse)) { it.getLatestBlock(sealed, fullBlockResponse) }
+
+    override fun getBlockById(id: FlowId, fullBlockResponse: Boolean): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlock?>> =
+        call(AccessApiMethod.GET_BLOCK_BY_ID, listOf(id, fullBlockResponse)) { it.getBlockById(id, fullBlockResponse) }
+
+    override fun getAccountBalanceAtLatestBlock(address: FlowAddress): CompletableFuture<FlowAccessApi.AccessApiCallResponse<Long>> =
+        call(AccessApiMethod.GET_ACCOUNT_BALANCE_AT_LATEST_BLOCK, listOf(address)) { it.getAccountBalanceAtLatestBlock(address) }
+
+    override fun getAccountBalanceAtBlockHeight(address: FlowAddress, height: Long): CompletableFuture<FlowAccessApi.AccessApiCallResponse<Long>> =
+        call(AccessApiMethod.GET_ACCOUNT_BALANCE_AT_BLOCK_HEIGHT, listOf(address, height)) { it.getAccountBalanceAtBlockHeight(address, height) }
+
+    override fun getBlockByHeight(height: Long, fullBlockResponse: Boolean): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlock?>> =
+        call(AccessApiMethod.GET_BLOCK_BY_HEIGHT, listOf(height, fullBlockResponse)) { it.getBlockByHeight(height, fullBlockResponse) }
+
+    override fun getCollectionById(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowCollection?>> =
+        call(AccessApiMethod.GET_COLLECTION_BY_ID, listOf(id)) { it.getCollectionById(id) }
+
+    override fun getFullCollectionById(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<List<FlowTransaction>>> =
+        call(AccessApiMethod.GET_FULL_COLLECTION_BY_ID, listOf(id)) { it.getFullCollectionById(id) }
+
+    override fun sendTransaction(transaction: FlowTransaction): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowId>> =
+        call(AccessApiMethod.SEND_TRANSACTION, listOf(transaction)) { it.sendTransaction(transaction) }
+
+    override fun getTransactionById(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowTransaction?>> =
+        call(AccessApiMethod.GET_TRANSACTION_BY_ID, listOf(id)) { it.getTransactionById(id) }
+
+    override fun getTransactionResultById(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowTransactionResult?>> =
+        call(AccessApiMethod.GET_TRANSACTION_RESULT_BY_ID, listOf(id)) { it.getTransactionResultById(id) }
+
+    override fun getSystemTransaction(blockId: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowTransaction?>> =
+        call(AccessApiMethod.GET_SYSTEM_TRANSACTION, listOf(blockId)) { it.getSystemTransaction(blockId) }
+
+    override fun getSystemTransactionResult(blockId: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowTransactionResult?>> =
+        call(AccessApiMethod.GET_SYSTEM_TRANSACTION_RESULT, listOf(blockId)) { it.getSystemTransactionResult(blockId) }
+
+    override fun getTransactionResultByIndex(blockId: FlowId, index: Int): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowTransactionResult>> =
+        call(AccessApiMethod.GET_TRANSACTION_RESULT_BY_INDEX, listOf(blockId, index)) { it.getTransactionResultByIndex(blockId, index) }
+
+    @Suppress("DEPRECATION")
+    @Deprecated("Behaves identically to getAccountAtLatestBlock", replaceWith = ReplaceWith("getAccountAtLatestBlock"))
+    override fun getAccountByAddress(addresss: FlowAddress): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowAccount>> =
+        call(AccessApiMethod.GET_ACCOUNT_BY_ADDRESS, listOf(addresss)) { it.getAccountByAddress(addresss) }
+
+    override fun getAccountAtLatestBlock(addresss: FlowAddress): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowAccount>> =
+        call(AccessApiMethod.GET_ACCOUNT_AT_LATEST_BLOCK, listOf(addresss)) { it.getAccountAtLatestBlock(addresss) }
+
+    override fun getAccountByBlockHeight(addresss: FlowAddress, height: Long): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowAccount>> =
+        call(AccessApiMethod.GET_ACCOUNT_BY_BLOCK_HEIGHT, listOf(addresss, height)) { it.getAccountByBlockHeight(addresss, height) }
+
+    override fun executeScriptAtLatestBlock(script: FlowScript, arguments: Iterable<ByteString>): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowScriptResponse>> =
+        arguments.toList().let { args ->
+            call(AccessApiMethod.EXECUTE_SCRIPT_AT_LATEST_BLOCK, listOf(script, args)) { it.executeScriptAtLatestBlock(script, args) }
+        }
+
+    override fun executeScriptAtBlockId(script: FlowScript, blockId: FlowId, arguments: Iterable<ByteString>): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowScriptResponse>> =
+        arguments.toList().let { args ->
+            call(AccessApiMethod.EXECUTE_SCRIPT_AT_BLOCK_ID, listOf(script, blockId, args)) { it.executeScriptAtBlockId(script, blockId, args) }
+        }
+
+    override fun executeScriptAtBlockHeight(script: FlowScript, height: Long, arguments: Iterable<ByteString>): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowScriptResponse>> =
+        arguments.toList().let { args ->
+            call(AccessApiMethod.EXECUTE_SCRIPT_AT_BLOCK_HEIGHT, listOf(script, height, args)) { it.executeScriptAtBlockHeight(script, height, args) }
+        }
+
+    override fun getEventsForHeightRange(type: String, range: ClosedRange<Long>): CompletableFuture<FlowAccessApi.AccessApiCallResponse<List<FlowEventResult>>> =
+        call(AccessApiMethod.GET_EVENTS_FOR_HEIGHT_RANGE, listOf(type, range.start, range.endInclusive)) { it.getEventsForHeightRange(type, range) }
+
+    override fun getEventsForBlockIds(type: String, ids: Set<FlowId>): CompletableFuture<FlowAccessApi.AccessApiCallResponse<List<FlowEventResult>>> =
+        call(AccessApiMethod.GET_EVENTS_FOR_BLOCK_IDS, listOf(type, ids)) { it.getEventsForBlockIds(type, ids) }
+
+    override fun getNetworkParameters(): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowChainId>> =
+        call(AccessApiMethod.GET_NETWORK_PARAMETERS, emptyList()) { it.getNetworkParameters() }
+
+    override fun getLatestProtocolStateSnapshot(): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowSnapshot>> =
+        call(AccessApiMethod.GET_LATEST_PROTOCOL_STATE_SNAPSHOT, emptyList()) { it.getLatestProtocolStateSnapshot() }
+
+    override fun getProtocolStateSnapshotByBlockId(blockId: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowSnapshot>> =
+        call(AccessApiMethod.GET_PROTOCOL_STATE_SNAPSHOT_BY_BLOCK_ID, listOf(blockId)) { it.getProtocolStateSnapshotByBlockId(blockId) }
+
+    override fun getProtocolStateSnapshotByHeight(height: Long): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowSnapshot>> =
+        call(AccessApiMethod.GET_PROTOCOL_STATE_SNAPSHOT_BY_HEIGHT, listOf(height)) { it.getProtocolStateSnapshotByHeight(height) }
+
+    override fun getNodeVersionInfo(): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowNodeVersionInfo>> =
+        call(AccessApiMethod.GET_NODE_VERSION_INFO, emptyList()) { it.getNodeVersionInfo() }
+
+    override fun getTransactionsByBlockId(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<List<FlowTransaction>>> =
+        call(AccessApiMethod.GET_TRANSACTIONS_BY_BLOCK_ID, listOf(id)) { it.getTransactionsByBlockId(id) }
+
+    override fun getTransactionResultsByBlockId(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<List<FlowTransactionResult>>> =
+        call(AccessApiMethod.GET_TRANSACTION_RESULTS_BY_BLOCK_ID, listOf(id)) { it.getTransactionResultsByBlockId(id) }
+
+    override fun getExecutionResultByBlockId(id: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowExecutionResult?>> =
+        call(AccessApiMethod.GET_EXECUTION_RESULT_BY_BLOCK_ID, listOf(id)) { it.getExecutionResultByBlockId(id) }
+
+    // closing the view must not close the clients it shares with the decorator it was made from
+    private class DeadlineView(
+        api: AsyncFlowAccessApi
+    ) : AsyncFlowAccessApi by api,
+        Closeable {
+        override fun close() = Unit
+    }
+}
@@ -0,0 +1,195 @@
+package org.onflow.flow.sdk.impl
+
+import com.google.protobuf.ByteString
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.ReceiveChannel
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.time.Duration
+
+/**
+ * Base class for [FlowAccessApi] decorators. Every unary call is routed through [call] and every streaming
+ * subscription through [subscribe], together with the [AccessApiMethod] being invoked and its arguments, so that
+ * a decorator only has to implement its behaviour once.
+ */
+abstract class ForwardingFlowAccessApi :
+    FlowAccessApi,
+    Closeable {
+    protected abstract fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> FlowAccessApi.AccessApiCallResponse<T>
+    ): FlowAccessApi.AccessApiCallResponse<T>
+
+    protected abstract fun <T> subscribe(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> T
+    ): T
+
+    /**
+     * Returns a view of this decorator that forwards to the client it decorates, or each access node of a load
+     * balanced client, scoped to a deadline [timeout] from now. Retries and hedged calls share that deadline. The
+     * view keeps the behaviour and the state of this decorator, such as its cache, retry budget, rate limits and
+     * node statistics, closing it has no effect.
+     */
+    override fun withDeadline(timeout: Duration): FlowAccessApi = DeadlineView(withDelegates { it.withDeadline(timeout) })
+
+    /**
+     * Returns a decorator that shares the state of this one but forwards to the clients returned by [wrap] instead of
+     * the ones this decorator forwards to. Background work such as health checks stays with this decorator.
+     */
+    protected abstract fun withDelegates(wrap: (FlowAccessApi) -> FlowAccessApi): ForwardingFlowAccessApi
+
+    override fun ping(): FlowAccessApi.AccessApiCallResponse<Unit> =
+        call(AccessApiMethod.PING, emptyList()) { it.ping() }
+
+    override fun getAccountKeyAtLatestBlock(address: FlowAddress, keyIndex: Int): FlowAccessApi.AccessApiCallResponse<FlowAccountKey> =
+        call(AccessApiMethod.GET_ACCOUNT_KEY_AT_LATEST_BLOCK, listOf(address, keyIndex)) { it.getAccountKeyAtLatestBlock(address, keyIndex) }
+
+    override fun getAccountKeyAtBlockHeight(address: FlowAddress, keyIndex: Int, height: Long): FlowAccessApi.AccessApiCallResponse<FlowAccountKey> =
+        call(AccessApiMethod.GET_ACCOUNT_KEY_AT_BLOCK_HEIGHT, listOf(address, keyIndex, height)) { it.getAccountKeyAtBlockHeight(address, keyIndex, height) }
+
+    override fun getAccountKeysAtLatestBlock(address: FlowAddress): FlowAccessApi.AccessApiCallResponse<List<FlowAccountKey>> =
+        call(AccessApiMethod.GET_ACCOUNT_KEYS_AT_LATEST_BLOCK, listOf(address)) { it.getAccountKeysAtLatestBlock(address) }
+
+    override fun getAccountKeysAtBlockHeight(address: FlowAddress, height: Long): FlowAccessApi.AccessApiCallResponse<List<FlowAccountKey>> =
+        call(AccessApiMethod.GET_ACCOUNT_KEYS_AT_BLOCK_HEIGHT, listOf(address, height)) { it.getAccountKeysAtBlockHeight(address, height) }
+
+    override fun getLatestBlockHeader(sealed: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader> =
+        call(AccessApiMethod.GET_LATEST_BLOCK_HEADER, listOf(sealed)) { it.getLatestBlockHeader(sealed) }
+
+    override fun getBlockHeaderById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader> =
+        call(AccessApiMethod.GET_BLOCK_HEADER_BY_ID, listOf(id)) { it.getBlockHeaderById(id) }
+
+    override fun getBlockHeaderByHeight(height: Long): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader> =
+        call(AccessApiMethod.GET_BLOCK_HEADER_BY_HEIGHT, listOf(height)) { it.getBlockHeaderByHeight(height) }
+
+    override fun getLatestBlock(sealed: Boolean, fullBlockResponse: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlock> =
+        call(AccessApiMethod.GET_LATEST_BLOCK, listOf(sealed, fullBlockResponse)) { it.getLatestBlock(sealed, fullBlockResponse) }
+
+    override fun getBlockById(id: FlowId, fullBlockResponse: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlock> =
+        call(AccessApiMethod.GET_BLOCK_BY_ID, listOf(id, fullBlockResponse)) { it.getBlockById(id, fullBlockResponse) }
+
+    override fun getAccountBalanceAtLatestBlock(address: FlowAddress): FlowAccessApi.AccessApiCallResponse<Long> =
+        call(AccessApiMethod.GET_ACCOUNT_BALANCE_AT_LATEST_BLOCK, listOf(address)) { it.getAccountBalanceAtLatestBlock(address) }
+
+    override fun getAccountBalanceAtBlockHeight(address: FlowAddress, height: Long): FlowAccessApi.AccessApiCallResponse<Long> =
+        call(AccessApiMethod.GET_ACCOUNT_BALANCE_AT_BLOCK_HEIGHT, listOf(address, height)) { it.getAccountBalanceAtBlockHeight(address, height) }
+
+    override fun getBlockByHeight(height: Long, fullBlockResponse: Boolean): FlowAccessApi.AccessApiCallResponse<FlowBlock> =
+        call(AccessApiMethod.GET_BLOCK_BY_HEIGHT, listOf(height, fullBlockResponse)) { it.getBlockByHeight(height, fullBlockResponse) }
+
+    override fun getCollectionById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowCollection> =
+        call(AccessApiMethod.GET_COLLECTION_BY_ID, listOf(id)) { it.getCollectionById(id) }
+
+    override fun getFullCollectionById(id: FlowId): FlowAccessApi.AccessApiCallResponse<List<FlowTransaction>> =
+        call(AccessApiMethod.GET_FULL_COLLECTION_BY_ID, listOf(id)) { it.getFullCollectionById(id) }
+
+    override fun sendTransaction(transaction: FlowTransaction): FlowAccessApi.AccessApiCallResponse<FlowId> =
+        call(AccessApiMethod.SEND_TRANSACTION, listOf(transaction)) { it.sendTransaction(transaction) }
+
+    override fun getTransactionById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransaction> =
+        call(AccessApiMethod.GET_TRANSACTION_BY_ID, listOf(id)) { it.getTransactionById(id) }
+
+    override fun getTransactionResultById(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransactionResult> =
+        call(AccessApiMethod.GET_TRANSACTION_RESULT_BY_ID, listOf(id)) { it.getTransactionResultById(id) }
+
+    override fun getSystemTransaction(blockId: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransaction> =
+        call(AccessApiMethod.GET_SYSTEM_TRANSACTION, listOf(blockId)) { it.getSystemTransaction(blockId) }
+
+    override fun getSystemTransactionResult(blockId: FlowId): FlowAccessApi.AccessApiCallResponse<FlowTransactionResult> =
+        call(AccessApiMethod.GET_SYSTEM_TRANSACTION_RESULT, listOf(blockId)) { it.getSystemTransactionResult(blockId) }
+
+    override fun getTransactionResultByIndex(blockId: FlowId, index: Int): FlowAccessApi.AccessApiCallResponse<FlowTransactionResult> =
+        call(AccessApiMethod.GET_TRANSACTION_RESULT_BY_INDEX, listOf(blockId, index)) { it.getTransactionResultByIndex(blockId, index) }
+
+    @Suppress("DEPRECATION")
+    @Deprecated("Behaves identically to getAccountAtLatestBlock", replaceWith = ReplaceWith("getAccountAtLatestBlock"))
+    override fun getAccountByAddress(addresss: FlowAddress): FlowAccessApi.AccessApiCallResponse<FlowAccount> =
+        call(AccessApiMethod.GET_ACCOUNT_BY_ADDRESS, listOf(addresss)) { it.getAccountByAddress(addresss) }
+
+    override fun getAccountAtLatestBlock(addresss: FlowAddress): FlowAccessApi.AccessApiCallResponse<FlowAccount> =
+        call(AccessApiMethod.GET_ACCOUNT_AT_LATEST_BLOCK, listOf(addresss)) { it.getAccountAtLatestBlock(addresss) }
+
+    override fun getAccountByBlockHeight(addresss: FlowAddress, height: Long): FlowAccessApi.AccessApiCallResponse<FlowAccount> =
+        call(AccessApiMethod.GET_ACCOUNT_BY_BLOCK_HEIGHT, listOf(addresss, height)) { it.getAccountByBlockHeight(addresss, height) }
+
+    override fun executeScriptAtLatestBlock(script: FlowScript, arguments: Iterable<ByteString>): FlowAccessApi.AccessApiCallResponse<FlowScriptResponse> =
+        arguments.toList().let { args ->
+            call(AccessApiMethod.EXECUTE_SCRIPT_AT_LATEST_BLOCK, listOf(script, args)) { it.executeScriptAtLatestBlock(script, args) }
+        }
+
+    override fun executeScriptAtBlockId(script: FlowScript, blockId: FlowId, arguments: Iterable<ByteString>): FlowAccessApi.AccessApiCallResponse<FlowScriptResponse> =
+        arguments.toList().let { args ->
+            call(AccessApiMethod.EXECUTE_SCRIPT_AT_BLOCK_ID, listOf(script, blockId, args)) { it.executeScriptAtBlockId(script, blockId, args) }
+        }
+
+    override fun executeScriptAtBlockHeight(script: FlowScript, height: Long, arguments: Iterable<ByteString>): FlowAccessApi.AccessApiCallResponse<FlowScriptResponse> =
+        arguments.toList().let { args ->
+            call(AccessApiMethod.EXECUTE_SCRIPT_AT_BLOCK_HEIGHT, listOf(script, height, args)) { it.executeScriptAtBlockHeight(script, height, args) }
+        }
+
+    override fun getEventsForHeightRange(type: String, range: ClosedRange<Long>): FlowAccessApi.AccessApiCallResponse<List<FlowEventResult>> =
+        call(AccessApiMethod.GET_EVENTS_FOR_HEIGHT_RANGE, listOf(type, range.start, range.endInclusive)) { it.getEventsForHeightRange(type, range) }
+
+    override fun getEventsForBlockIds(type: String, ids: Set<FlowId>): FlowAccessApi.AccessApiCallResponse<List<FlowEventResult>> =
+        call(AccessApiMethod.GET_EVENTS_FOR_BLOCK_IDS, listOf(type, ids)) { it.getEventsForBlockIds(type, ids) }
+
+    override fun getNetworkParameters(): FlowAccessApi.AccessApiCallResponse<FlowChainId> =
+        call(AccessApiMethod.GET_NETWORK_PARAMETERS, emptyList()) { it.getNetworkParameters() }
+
+    override fun getLatestProtocolStateSnapshot(): FlowAccessApi.AccessApiCallResponse<FlowSnapshot> =
+        call(AccessApiMethod.GET_LATEST_PROTOCOL_STATE_SNAPSHOT, emptyList()) { it.getLatestProtocolStateSnapshot() }
+
+    override fun getProtocolStateSnapshotByBlockId(blockId: FlowId): FlowAccessApi.AccessApiCallResponse<FlowSnapshot> =
+        call(AccessApiMethod.GET_PROTOCOL_STATE_SNAPSHOT_BY_BLOCK_ID, listOf(blockId)) { it.getProtocolStateSnapshotByBlockId(blockId) }
+
+    override fun getProtocolStateSnapshotByHeight(height: Long): FlowAccessApi.AccessApiCallResponse<FlowSnapshot> =
+        call(AccessApiMethod.GET_PROTOCOL_STATE_SNAPSHOT_BY_HEIGHT, listOf(height)) { it.getProtocolStateSnapshotByHeight(height) }
+
+    override fun getNodeVersionInfo(): FlowAccessApi.AccessApiCallResponse<FlowNodeVersionInfo> =
+        call(AccessApiMethod.GET_NODE_VERSION_INFO, emptyList()) { it.getNodeVersionInfo() }
+
+    override fun getTransactionsByBlockId(id: FlowId): FlowAccessApi.AccessApiCallResponse<List<FlowTransaction>> =
+        call(AccessApiMethod.GET_TRANSACTIONS_BY_BLOCK_ID, listOf(id)) { it.getTransactionsByBlockId(id) }
+
+    override fun getTransactionResultsByBlockId(id: FlowId): FlowAccessApi.AccessApiCallResponse<List<FlowTransactionResult>> =
+        call(AccessApiMethod.GET_TRANSACTION_RESULTS_BY_BLOCK_ID, listOf(id)) { it.getTransactionResultsByBlockId(id) }
+
+    override fun getExecutionResultByBlockId(id: FlowId): FlowAccessApi.AccessApiCallResponse<FlowExecutionResult> =
+        call(AccessApiMethod.GET_EXECUTION_RESULT_BY_BLOCK_ID, listOf(id)) { it.getExecutionResultByBlockId(id) }
+
+    override fun subscribeExecutionDataByBlockId(
+        scope: CoroutineScope,
+        blockId: FlowId
+    ): Triple<ReceiveChannel<FlowBlockExecutionData>, ReceiveChannel<Throwable>, Job> =
+        subscribe(AccessApiMethod.SUBSCRIBE_EXECUTION_DATA_BY_BLOCK_ID, listOf(blockId)) { it.subscribeExecutionDataByBlockId(scope, blockId) }
+
+    override fun subscribeExecutionDataByBlockHeight(
+        scope: CoroutineScope,
+        height: Long
+    ): Triple<ReceiveChannel<FlowBlockExecutionData>, ReceiveChannel<Throwable>, Job> =
+        subscribe(AccessApiMethod.SUBSCRIBE_EXECUTION_DATA_BY_BLOCK_HEIGHT, listOf(height)) { it.subscribeExecutionDataByBlockHeight(scope, height) }
+
+    override fun subscribeEventsByBlockId(
+        scope: CoroutineScope,
+        blockId: FlowId
+    ): Triple<ReceiveChannel<List<FlowEvent>>, ReceiveChannel<Throwable>, Job> =
+        subscribe(AccessApiMethod.SUBSCRIBE_EVENTS_BY_BLOCK_ID, listOf(blockId)) { it.subscribeEventsByBlockId(scope, blockId) }
+
+    override fun subscribeEventsByBlockHeight(
+        scope: CoroutineScope,
+        height: Long
+    ): Triple<ReceiveChannel<List<FlowEvent>>, ReceiveChannel<Throwable>, Job> =
+        subscribe(AccessApiMethod.SUBSCRIBE_EVENTS_BY_BLOCK_HEIGHT, listOf(height)) { it.subscribeEventsByBlockHeight(scope, height) }
+
+    // closing the view must not close the clients it shares with the decorator it was made from
+    private class DeadlineView(
+        api: FlowAccessApi
+    ) : FlowAccessApi by api,
+        Closeable {
+        override fun close() = Unit
+    }
+}
@@ -0,0 +1,36 @@
+package org.onflow.flow.sdk.impl
+
+/**
+ * Ring buffer of the most recent call latencies. Percentiles are recomputed only after a sixteenth of the window
+ * has been replaced, so querying it on every call stays cheap.
+ */
+internal class LatencyWindow(
+    private val size: Int
+) {
+    private val samples = LongArray(size)
+    private var count = 0L
+    private var stale = 0
+    private var cachedPercentile = Double.NaN
+    private var cachedValue = 0L
+
+    @Synchronized
+    fun record(nanos: Long) {
+        samples[(count % size).toInt()] = nanos
+        count++
+        stale++
+    }
+
+    @Synchronized
+    fun percentile(percentile: Double, minSamples: Int): Long? {
+        if (count < minSamples) {
+            return null
+        }
+        if (percentile != cachedPercentile || stale > size / 16) {
+            val sorted = samples.copyOf(minOf(count, size.toLong()).toInt()).apply { sort() }
+            cachedValue = sorted[((sorted.size - 1) * percentile).toInt()]
+            cachedPercentile = percentile
+            stale = 0
+        }
+        return cachedValue
+    }
+}
@@ -0,0 +1,231 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.util.EnumMap
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * [AsyncFlowAccessApi] that spreads calls over several access nodes, see [LoadBalancingOptions], and optionally
+ * hedges slow reads to a second node, see [HedgingPolicy].
+ */
+class LoadBalancedAsyncFlowAccessApi private constructor(
+    private val nodes: List<AsyncFlowAccessApi>,
+    private val options: LoadBalancingOptions,
+    private val hedging: HedgingPolicy?,
+    private val balancer: AccessNodeBalancer,
+    private val latencies: Map<AccessApiMethod, LatencyWindow>,
+    private val issuedHedges: LongAdder,
+    private val wonHedges: LongAdder,
+    private val scheduler: ScheduledExecutorService?
+) : ForwardingAsyncFlowAccessApi() {
+    @JvmOverloads
+    constructor(
+        nodes: List<AsyncFlowAccessApi>,
+        options: LoadBalancingOptions = LoadBalancingOptions(),
+        hedging: HedgingPolicy? = null
+    ) : this(
+        nodes,
+        options,
+        hedging,
+        AccessNodeBalancer(nodes.size, options),
+        EnumMap<AccessApiMethod, LatencyWindow>(AccessApiMethod::class.java).apply {
+            hedging?.methods?.forEach { put(it, LatencyWindow(hedging.windowSize)) }
+        },
+        LongAdder(),
+        LongAdder(),
+        if (!options.healthCheckInterval.isZero || (hedging != null && nodes.size > 1)) {
+            Schedulers.newDaemonScheduler("flow-access-balancer")
+        } else {
+            null
+        }
+    ) {
+        if (!options.healthCheckInterval.isZero) {
+            val interval = options.healthCheckInterval.toNanos()
+            scheduler?.scheduleWithFixedDelay({ checkNodes() }, 0, interval, TimeUnit.NANOSECONDS)
+        }
+    }
+
+    val nodeStats: List<AccessNodeStats> get() = balancer.stats
+
+    // duplicate calls sent because the first one was slower than the hedge delay
+    val hedgesIssued: Long get() = issuedHedges.sum()
+
+    // hedged calls whose duplicate answered before the original call
+    val hedgesWon: Long get() = wonHedges.sum()
+
+    override fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (AsyncFlowAccessApi) -> CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>> {
+        val primaryIndex = balancer.select()
+        if (scheduler == null || nodes.size < 2 || method !in latencies) {
+            return callNode(primaryIndex, method, arguments, action)
+        }
+        return hedge(primaryIndex, method, arguments, action)
+    }
+
+    // the copy reports to the same node statistics and latency windows and hedges on the same scheduler, health
+    // checks keep running against the original nodes
+    override fun withDelegates(wrap: (AsyncFlowAccessApi) -> AsyncFlowAccessApi): ForwardingAsyncFlowAccessApi =
+        LoadBalancedAsyncFlowAccessApi(
+            nodes.map(wrap), options, hedging, balancer, latencies, issuedHedges, wonHedges, scheduler
+        )
+
+    override fun close() {
+        scheduler?.shutdownNow()
+        nodes.forEach { (it as? Closeable)?.close() }
+    }
+
+    // legs that may still answer, guarded by the instance itself
+    private class HedgeState {
+        @Volatile
+        var decided = false
+        var outstanding = 1
+    }
+
+    private fun <T> hedge(
+        primaryIndex: Int,
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (AsyncFlowAccessApi) -> CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>> {
+        val result = CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>()
+        val state = HedgeState()
+        val secondary = AtomicReference<CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>>()
+        val delay = hedgeDelay(method)
+        val start = System.nanoTime()
+        val primary = callNode(primaryIndex, method, arguments, action)
+        primary.whenComplete { response, ex ->
+            settle(state, result, response, ex) {
+                secondary.get()?.cancel(true)
+            }
+        }
+
+        val timer = scheduler!!.schedule({
+            val hedgeIndex = balancer.select(exclude = primaryIndex)
+            // sending the duplicate to the node that is already slow to answer would only double its load
+            if (hedgeIndex != primaryIndex && claimLeg(state)) {
+                val duplicate = try {
+                    callNode(hedgeIndex, method, arguments, action)
+                } catch (e: Exception) {
+                    CompletableFuture.failedFuture(e)
+                }
+                issuedHedges.increment()
+                secondary.set(duplicate)
+                duplicate.whenComplete { response, ex ->
+                    settle(state, result, response, ex) {
+                        if (response is FlowAccessApi.AccessApiCallResponse.Success) {
+                            wonHedges.increment()
+                            // the cancelled call took at least this long, leaving it out would pull the percentile down
+                            latencies[method]?.record(maxOf(System.nanoTime() - start, delay))
+                        }
+                        primary.cancel(true)
+                    }
+                }
+                if (state.decided) {
+                    // the original call succeeded while the duplicate was being sent, cancelling a done future is a no-op
+                    duplicate.cancel(true)
+                }
+            }
+        }, delay, TimeUnit.NANOSECONDS)
+
+        result.whenComplete { _, ex ->
+            timer.cancel(false)
+            if (ex is CancellationException) {
+                primary.cancel(true)
+                secondary.get()?.cancel(true)
+            }
+        }
+        return result
+    }
+
+    private fun claimLeg(state: HedgeState): Boolean =
+        synchronized(state) {
+            if (!state.decided) {
+                state.outstanding++
+            }
+            !state.decided
+        }
+
+    // the first successful leg decides the result and the loser is cancelled before the caller observes it; a failed
+    // leg only decides it once no other leg is left that could still succeed
+    private fun <T> settle(
+        state: HedgeState,
+        result: CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>,
+        response: FlowAccessApi.AccessApiCallResponse<T>?,
+        ex: Throwable?,
+        onWin: () -> Unit
+    ) {
+        if (ex is CancellationException || ex?.cause is CancellationException) {
+            return
+        }
+        val success = ex == null && response is FlowAccessApi.AccessApiCallResponse.Success
+        synchronized(state) {
+            if (state.decided) {
+                return
+            }
+            state.outstanding--
+            if (!success && state.outstanding > 0) {
+                return
+            }
+            state.decided = true
+        }
+        onWin()
+        if (ex == null) {
+            result.complete(response)
+        } else {
+            result.completeExceptionally(ex)
+        }
+    }
+
+    private fun hedgeDelay(method: AccessApiMethod): Long {
+        val policy = hedging!!
+        val observed = policy.percentile?.let { latencies[method]?.percentile(it, policy.minSamples) }
+        return observed ?: policy.delay.toNanos()
+    }
+
+    private fun <T> callNode(
+        index: Int,
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (AsyncFlowAccessApi) -> CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>> {
+        val start = balancer.begin(index)
+        val future = try {
+            action(nodes[index])
+        } catch (e: Exception) {
+            balancer.end(index, start, null)
+            throw e
+        }
+        future.whenComplete { response, ex ->
+            if (future.isCancelled) {
+                balancer.cancel(index)
+                return@whenComplete
+            }
+            // failures are often fast and would pull the hedge delay below the time a successful call takes
+            if (response is FlowAccessApi.AccessApiCallResponse.Success) {
+                latencies[method]?.record(System.nanoTime() - start)
+            }
+            balancer.observe(index, method, arguments, response)
+            balancer.end(index, start, response)
+        }
+        return future
+    }
+
+    private fun checkNodes() {
+        nodes.indices.forEach { index ->
+            try {
+                callNode(index, AccessApiMethod.GET_LATEST_BLOCK_HEADER, listOf(true)) { it.withDeadline(options.healthCheckTimeout).getLatestBlockHeader(true) }
+            } catch (e: Exception) {
+                // already recorded as a failure, a throwing node must not stop the schedule
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * [FlowAccessApi] that spreads calls over several access nodes, see [LoadBalancingOptions].
+ */
+class LoadBalancedFlowAccessApi private constructor(
+    private val nodes: List<FlowAccessApi>,
+    private val options: LoadBalancingOptions,
+    private val balancer: AccessNodeBalancer,
+    healthChecks: Boolean
+) : ForwardingFlowAccessApi() {
+    @JvmOverloads
+    constructor(nodes: List<FlowAccessApi>, options: LoadBalancingOptions = LoadBalancingOptions()) :
+        this(nodes, options, AccessNodeBalancer(nodes.size, options), true)
+
+    private val healthChecker: ScheduledExecutorService? = if (healthChecks) startHealthChecks() else null
+
+    val nodeStats: List<AccessNodeStats> get() = balancer.stats
+
+    override fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> FlowAccessApi.AccessApiCallResponse<T>
+    ): FlowAccessApi.AccessApiCallResponse<T> = callNode(balancer.select(), method, arguments, action)
+
+    override fun <T> subscribe(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> T
+    ): T = action(nodes[balancer.select()])
+
+    // the copy reports to the same node statistics, health checks keep running against the original nodes
+    override fun withDelegates(wrap: (FlowAccessApi) -> FlowAccessApi): ForwardingFlowAccessApi =
+        LoadBalancedFlowAccessApi(nodes.map(wrap), options, balancer, false)
+
+    override fun close() {
+        healthChecker?.shutdownNow()
+        nodes.forEach { (it as? Closeable)?.close() }
+    }
+
+    private fun <T> callNode(
+        index: Int,
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> FlowAccessApi.AccessApiCallResponse<T>
+    ): FlowAccessApi.AccessApiCallResponse<T> {
+        val start = balancer.begin(index)
+        var response: FlowAccessApi.AccessApiCallResponse<T>? = null
+        try {
+            response = action(nodes[index])
+            balancer.observe(index, method, arguments, response)
+            return response
+        } finally {
+            balancer.end(index, start, response)
+        }
+    }
+
+    private fun startHealthChecks(): ScheduledExecutorService? {
+        if (options.healthCheckInterval.isZero) {
+            return null
+        }
+        val interval = options.healthCheckInterval.toNanos()
+        return Schedulers.newDaemonScheduler("flow-access-health").apply {
+            scheduleWithFixedDelay({ checkNodes() }, 0, interval, TimeUnit.NANOSECONDS)
+        }
+    }
+
+    private fun checkNodes() {
+        nodes.indices.forEach { index ->
+            try {
+                callNode(index, AccessApiMethod.GET_LATEST_BLOCK_HEADER, listOf(true)) { it.withDeadline(options.healthCheckTimeout).getLatestBlockHeader(true) }
+            } catch (e: Exception) {
+                // already recorded as a failure, a throwing node must not stop the schedule
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * [AsyncFlowAccessApi] counterpart of [RateLimitedFlowAccessApi]. Calls over the limit are started from a scheduler
+ * once their turn comes, the caller's thread is never blocked.
+ */
+class RateLimitedAsyncFlowAccessApi private constructor(
+    private val api: AsyncFlowAccessApi,
+    private val limiter: AdaptiveRateLimiter,
+    private val scheduler: ScheduledExecutorService
+) : ForwardingAsyncFlowAccessApi() {
+    @JvmOverloads
+    constructor(api: AsyncFlowAccessApi, options: RateLimitOptions = RateLimitOptions()) :
+        this(api, AdaptiveRateLimiter(options), Schedulers.newDaemonScheduler("flow-access-rate-limit"))
+
+    fun currentRate(method: AccessApiMethod): Double? = limiter.currentRate(method)
+
+    override fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (AsyncFlowAccessApi) -> CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>> {
+        val wait = limiter.acquire(method) ?: return CompletableFuture.completedFuture(limiter.rejected(method))
+        if (wait == 0L) {
+            return try {
+                start(method, action)
+            } catch (e: Exception) {
+                CompletableFuture.failedFuture(e)
+            }
+        }
+        val result = CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>()
+        // whoever flips this first either starts the call or hands the reserved token back
+        val claimed = AtomicBoolean()
+        val timer = scheduler.schedule({
+            if (claimed.compareAndSet(false, true) && !result.isDone) {
+                val future = try {
+                    start(method, action)
+                } catch (e: Exception) {
+                    // thrown on the scheduler thread, nobody but the caller's future would see it
+                    result.completeExceptionally(e)
+                    return@schedule
+                }
+                future.whenComplete { response, ex -> if (ex == null) result.complete(response) else result.completeExceptionally(ex) }
+                result.whenComplete { _, _ -> if (result.isCancelled) future.cancel(true) }
+            }
+        }, wait, TimeUnit.NANOSECONDS)
+        result.whenComplete { _, _ ->
+            if (result.isCancelled && claimed.compareAndSet(false, true)) {
+                timer.cancel(false)
+                limiter.release(method)
+            }
+        }
+        return result
+    }
+
+    override fun withDelegates(wrap: (AsyncFlowAccessApi) -> AsyncFlowAccessApi): ForwardingAsyncFlowAccessApi =
+        RateLimitedAsyncFlowAccessApi(wrap(api), limiter, scheduler)
+
+    override fun close() {
+        scheduler.shutdownNow()
+        (api as? Closeable)?.close()
+    }
+
+    private fun <T> start(
+        method: AccessApiMethod,
+        action: (AsyncFlowAccessApi) -> CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>> {
+        val future = try {
+            action(api)
+        } catch (e: Exception) {
+            // the call never reached the node, its token goes back to the bucket
+            limiter.release(method)
+            throw e
+        }
+        future.whenComplete { response, _ -> limiter.record(method, response) }
+        return future
+    }
+}
@@ -0,0 +1,51 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.util.concurrent.TimeUnit
+
+/**
+ * [FlowAccessApi] that keeps calls to [api] within per-method rate limits that shrink when the access node
+ * answers with RESOURCE_EXHAUSTED, see [RateLimitOptions]. Callers over the limit wait for their turn.
+ */
+class RateLimitedFlowAccessApi private constructor(
+    private val api: FlowAccessApi,
+    private val limiter: AdaptiveRateLimiter
+) : ForwardingFlowAccessApi() {
+    @JvmOverloads
+    constructor(api: FlowAccessApi, options: RateLimitOptions = RateLimitOptions()) : this(api, AdaptiveRateLimiter(options))
+
+    fun currentRate(method: AccessApiMethod): Double? = limiter.currentRate(method)
+
+    override fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> FlowAccessApi.AccessApiCallResponse<T>
+    ): FlowAccessApi.AccessApiCallResponse<T> {
+        val wait = limiter.acquire(method) ?: return limiter.rejected(method)
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait)
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+                limiter.release(method)
+                return FlowAccessApi.AccessApiCallResponse.Error("Interrupted while waiting for rate limit", e)
+            }
+        }
+        val response = action(api)
+        limiter.record(method, response)
+        return response
+    }
+
+    override fun <T> subscribe(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> T
+    ): T = action(api)
+
+    override fun withDelegates(wrap: (FlowAccessApi) -> FlowAccessApi): ForwardingFlowAccessApi = RateLimitedFlowAccessApi(wrap(api), limiter)
+
+    override fun close() {
+        (api as? Closeable)?.close()
+    }
+}
@@ -0,0 +1,51 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.util.concurrent.ThreadLocalRandom
+import kotlin.math.pow
+
+internal class RetryController(
+    private val options: RetryOptions
+) {
+    private val tokenThreshold = options.budgetMaxTokens / 2
+    private var tokens = options.budgetMaxTokens
+
+    fun isRetryable(method: AccessApiMethod, response: FlowAccessApi.AccessApiCallResponse<*>): Boolean =
+        AccessApiErrors.statusOf(response)?.code in options.policyFor(method).retryableCodes
+
+    /**
+     * Records the outcome of attempt number [attempt] (starting at 1) and returns how long to wait before the next
+     * attempt in nanoseconds, or null when the response has to be returned to the caller as is.
+     */
+    fun nextBackoff(method: AccessApiMethod, attempt: Int, response: FlowAccessApi.AccessApiCallResponse<*>): Long? {
+        if (response is FlowAccessApi.AccessApiCallResponse.Success) {
+            onSuccess()
+            return null
+        }
+        // client errors such as NOT_FOUND are not retried but do not refill the budget either
+        if (!isRetryable(method, response)) {
+            return null
+        }
+        val policy = options.policyFor(method)
+        if (!onRetryableFailure() || attempt >= policy.maxAttempts) {
+            return null
+        }
+        val base = minOf(
+            policy.initialBackoff.toNanos() * policy.multiplier.pow(attempt - 1),
+            policy.maxBackoff.toNanos().toDouble()
+        )
+        return (base * (1.0 - policy.jitter * ThreadLocalRandom.current().nextDouble())).toLong()
+    }
+
+    @Synchronized
+    private fun onSuccess() {
+        tokens = minOf(options.budgetMaxTokens, tokens + options.budgetTokenRatio)
+    }
+
+    // returns whether the budget still allows a retry after paying for this failure
+    @Synchronized
+    private fun onRetryableFailure(): Boolean {
+        tokens = maxOf(0.0, tokens - 1)
+        return tokens > tokenThreshold
+    }
+}
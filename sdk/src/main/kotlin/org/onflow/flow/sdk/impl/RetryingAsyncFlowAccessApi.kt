@@ -0,0 +1,111 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * [AsyncFlowAccessApi] that retries failed calls of [api] according to [RetryOptions]. Backoff delays are waited
+ * out on a scheduler thread, never by blocking the caller.
+ */
+class RetryingAsyncFlowAccessApi private constructor(
+    private val api: AsyncFlowAccessApi,
+    private val retries: RetryController,
+    private val scheduler: ScheduledExecutorService
+) : ForwardingAsyncFlowAccessApi() {
+    @JvmOverloads
+    constructor(api: AsyncFlowAccessApi, options: RetryOptions = RetryOptions()) :
+        this(api, RetryController(options), Schedulers.newDaemonScheduler("flow-access-retry"))
+
+    override fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (AsyncFlowAccessApi) -> CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>> {
+        if (!method.idempotent) {
+            return action(api)
+        }
+        return retry(method) { action(api) }
+    }
+
+    override fun withDelegates(wrap: (AsyncFlowAccessApi) -> AsyncFlowAccessApi): ForwardingAsyncFlowAccessApi =
+        RetryingAsyncFlowAccessApi(wrap(api), retries, scheduler)
+
+    override fun sendTransaction(transaction: FlowTransaction): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowId>> {
+        val expectedId = transaction.id
+        var resend = false
+        return retry(AccessApiMethod.SEND_TRANSACTION) {
+            if (!resend) {
+                resend = true
+                send(transaction, expectedId)
+            } else {
+                // the failed attempt may still have reached the network, only send again if the node does not know it
+                api.getTransactionResultById(expectedId).thenCompose { known ->
+                    if (known is FlowAccessApi.AccessApiCallResponse.Success) {
+                        CompletableFuture.completedFuture<FlowAccessApi.AccessApiCallResponse<FlowId>>(FlowAccessApi.AccessApiCallResponse.Success(expectedId))
+                    } else {
+                        send(transaction, expectedId)
+                    }
+                }
+            }
+        }
+    }
+
+    override fun close() {
+        scheduler.shutdownNow()
+        (api as? Closeable)?.close()
+    }
+
+    private fun send(transaction: FlowTransaction, expectedId: FlowId): CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowId>> =
+        api.sendTransaction(transaction).thenApply { TransactionRetries.verifySentId(expectedId, it) }
+
+    private fun <T> retry(
+        method: AccessApiMethod,
+        attemptCall: () -> CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>
+    ): CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>> {
+        val result = CompletableFuture<FlowAccessApi.AccessApiCallResponse<T>>()
+        val inFlight = AtomicReference<CompletableFuture<*>>()
+        fun attempt(number: Int) {
+            if (result.isDone) {
+                return
+            }
+            val future = try {
+                attemptCall()
+            } catch (e: Throwable) {
+                // a throwing attempt on the scheduler thread would otherwise leave the caller waiting forever
+                result.completeExceptionally(e)
+                return
+            }
+            inFlight.set(future)
+            future.whenComplete { response, ex ->
+                when {
+                    ex != null -> result.completeExceptionally(ex)
+                    else -> {
+                        val backoff = retries.nextBackoff(method, number, response)
+                        if (backoff == null) {
+                            result.complete(response)
+                        } else {
+                            try {
+                                scheduler.schedule({ attempt(number + 1) }, backoff, TimeUnit.NANOSECONDS)
+                            } catch (e: RejectedExecutionException) {
+                                // closed while waiting to retry
+                                result.completeExceptionally(e)
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        attempt(1)
+        result.whenComplete { _, _ ->
+            if (result.isCancelled) {
+                inFlight.get()?.cancel(true)
+            }
+        }
+        return result
+    }
+}
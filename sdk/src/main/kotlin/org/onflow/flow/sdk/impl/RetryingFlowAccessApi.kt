@@ -0,0 +1,82 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.*
+import java.io.Closeable
+import java.util.concurrent.TimeUnit
+
+/**
+ * [FlowAccessApi] that retries failed calls of [api] according to [RetryOptions].
+ */
+class RetryingFlowAccessApi private constructor(
+    private val api: FlowAccessApi,
+    private val retries: RetryController
+) : ForwardingFlowAccessApi() {
+    @JvmOverloads
+    constructor(api: FlowAccessApi, options: RetryOptions = RetryOptions()) : this(api, RetryController(options))
+
+    override fun <T> call(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> FlowAccessApi.AccessApiCallResponse<T>
+    ): FlowAccessApi.AccessApiCallResponse<T> {
+        if (!method.idempotent) {
+            return action(api)
+        }
+        var attempt = 1
+        while (true) {
+            val response = action(api)
+            val backoff = retries.nextBackoff(method, attempt, response) ?: return response
+            if (!sleep(backoff)) {
+                return response
+            }
+            attempt++
+        }
+    }
+
+    override fun <T> subscribe(
+        method: AccessApiMethod,
+        arguments: List<Any?>,
+        action: (FlowAccessApi) -> T
+    ): T = action(api)
+
+    override fun withDelegates(wrap: (FlowAccessApi) -> FlowAccessApi): ForwardingFlowAccessApi = RetryingFlowAccessApi(wrap(api), retries)
+
+    override fun sendTransaction(transaction: FlowTransaction): FlowAccessApi.AccessApiCallResponse<FlowId> {
+        val expectedId = transaction.id
+        var attempt = 1
+        while (true) {
+            val response = TransactionRetries.verifySentId(expectedId, api.sendTransaction(transaction))
+            val backoff = retries.nextBackoff(AccessApiMethod.SEND_TRANSACTION, attempt, response) ?: return response
+            if (!sleep(backoff)) {
+                return response
+            }
+            // the failed attempt may still have reached the network, only send again if the node does not know it
+            if (api.getTransactionResultById(expectedId) is FlowAccessApi.AccessApiCallResponse.Success) {
+                return FlowAccessApi.AccessApiCallResponse.Success(expectedId)
+            }
+            attempt++
+        }
+    }
+
+    override fun close() {
+        (api as? Closeable)?.close()
+    }
+
+    private fun sleep(nanos: Long): Boolean =
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos)
+            true
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+            false
+        }
+}
+
+internal object TransactionRetries {
+    fun verifySentId(expectedId: FlowId, response: FlowAccessApi.AccessApiCallResponse<FlowId>): FlowAccessApi.AccessApiCallResponse<FlowId> =
+        if (response is FlowAccessApi.AccessApiCallResponse.Success && response.data != expectedId) {
+            FlowAccessApi.AccessApiCallResponse.Error("Access node returned transaction id ${response.data.base16Value}, expected ${expectedId.base16Value}")
+        } else {
+            response
+        }
+}
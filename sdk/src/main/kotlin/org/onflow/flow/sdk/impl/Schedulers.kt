@@ -0,0 +1,22 @@
+package org.onflow.flow.sdk.impl
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.atomic.AtomicInteger
+
+internal object Schedulers {
+    private val threadCounter = AtomicInteger()
+
+    @JvmStatic
+    fun newDaemonScheduler(name: String): ScheduledExecutorService =
+        Executors.newSingleThreadScheduledExecutor { runnable ->
+            Thread(runnable, "$name-${threadCounter.incrementAndGet()}").apply { isDaemon = true }
+        }
+
+    @JvmStatic
+    fun newDaemonPool(name: String, threads: Int): ExecutorService =
+        Executors.newFixedThreadPool(threads) { runnable ->
+            Thread(runnable, "$name-${threadCounter.incrementAndGet()}").apply { isDaemon = true }
+        }
+}
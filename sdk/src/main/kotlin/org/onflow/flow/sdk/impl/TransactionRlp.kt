@@ -0,0 +1,263 @@
+package org.onflow.flow.sdk.impl
+
+import org.onflow.flow.sdk.EnvelopeSignature
+import org.onflow.flow.sdk.FlowTransaction
+import org.onflow.flow.sdk.FlowTransactionSignature
+import org.onflow.flow.sdk.Payload
+import org.onflow.flow.sdk.TransactionEnvelope
+
+/**
+ * RLP writer and reader for the fixed transaction schemas, byte for byte compatible with encoding the `@RLP`
+ * annotated [Payload] and envelope classes through `RLPCodec`, without reflection or intermediate objects. Every
+ * encoding is sized up front and written into a single array.
+ *
+ * Integers are encoded as unsigned big-endian values without leading zeros, zero being the empty string.
+ */
+internal object TransactionRlp {
+    private const val OFFSET_SHORT_STRING = 0x80
+    private const val OFFSET_LONG_STRING = 0xb7
+    private const val OFFSET_SHORT_LIST = 0xc0
+    private const val OFFSET_LONG_LIST = 0xf7
+    private const val SHORT_LENGTH_LIMIT = 56
+
+    fun encodePayload(tx: FlowTransaction): ByteArray {
+        val payload = payloadLength(tx)
+        return Writer(listSize(payload)).apply { writePayload(tx, payload) }.bytes
+    }
+
+    // rlp([payload, payloadSignatures])
+    fun encodeAuthorizationEnvelope(tx: FlowTransaction): ByteArray {
+        val payload = payloadLength(tx)
+        val payloadSignatures = signaturesLength(tx.payloadSignatures)
+        return Writer(listSize(listSize(payload) + listSize(payloadSignatures))).apply {
+            writeListHeader(listSize(payload) + listSize(payloadSignatures))
+            writePayload(tx, payload)
+            writeSignatures(tx.payloadSignatures, payloadSignatures)
+        }.bytes
+    }
+
+    // rlp([[payload, payloadSignatures], envelopeSignatures])
+    fun encodePaymentEnvelope(tx: FlowTransaction): ByteArray {
+        val payload = payloadLength(tx)
+        val payloadSignatures = signaturesLength(tx.payloadSignatures)
+        val envelopeSignatures = signaturesLength(tx.envelopeSignatures)
+        val authorization = listSize(payload) + listSize(payloadSignatures)
+        return Writer(listSize(listSize(authorization) + listSize(envelopeSignatures))).apply {
+            writeListHeader(listSize(authorization) + listSize(envelopeSignatures))
+            writeListHeader(authorization)
+            writePayload(tx, payload)
+            writeSignatures(tx.payloadSignatures, payloadSignatures)
+            writeSignatures(tx.envelopeSignatures, envelopeSignatures)
+        }.bytes
+    }
+
+    // rlp([payload, payloadSignatures, envelopeSignatures])
+    fun encodeTransaction(tx: FlowTransaction): ByteArray {
+        val payload = payloadLength(tx)
+        val payloadSignatures = signaturesLength(tx.payloadSignatures)
+        val envelopeSignatures = signaturesLength(tx.envelopeSignatures)
+        val content = listSize(payload) + listSize(payloadSignatures) + listSize(envelopeSignatures)
+        return Writer(listSize(content)).apply {
+            writeListHeader(content)
+            writePayload(tx, payload)
+            writeSignatures(tx.payloadSignatures, payloadSignatures)
+            writeSignatures(tx.envelopeSignatures, envelopeSignatures)
+        }.bytes
+    }
+
+    fun decodeTransaction(bytes: ByteArray): TransactionEnvelope {
+        val reader = Reader(bytes)
+        val end = reader.readListHeader()
+        val payloadEnd = reader.readListHeader()
+        val payload = Payload(
+            script = reader.readString(),
+            arguments = reader.readList { reader.readString() },
+            referenceBlockId = reader.readString(),
+            gasLimit = reader.readLong(),
+            proposalKeyAddress = reader.readString(),
+            proposalKeyIndex = reader.readLong(),
+            proposalKeySequenceNumber = reader.readLong(),
+            payer = reader.readString(),
+            authorizers = reader.readList { reader.readString() }
+        )
+        reader.expectEnd(payloadEnd)
+        val payloadSignatures = reader.readList { reader.readSignature() }
+        val envelopeSignatures = reader.readList { reader.readSignature() }
+        reader.expectEnd(end)
+        reader.expectEnd(bytes.size)
+        return TransactionEnvelope(payload, payloadSignatures, envelopeSignatures)
+    }
+
+    private fun payloadLength(tx: FlowTransaction): Int =
+        stringSize(tx.script.bytes) +
+            listSize(tx.arguments.sumOf { stringSize(it.bytes) }) +
+            stringSize(tx.referenceBlockId.bytes) +
+            longSize(tx.gasLimit) +
+            stringSize(tx.proposalKey.address.bytes) +
+            longSize(tx.proposalKey.keyIndex.toLong()) +
+            longSize(tx.proposalKey.sequenceNumber) +
+            stringSize(tx.payerAddress.bytes) +
+            listSize(tx.authorizers.sumOf { stringSize(it.bytes) })
+
+    private fun signaturesLength(signatures: List<FlowTransactionSignature>): Int =
+        signatures.sumOf { listSize(signatureLength(it)) }
+
+    private fun signatureLength(signature: FlowTransactionSignature): Int =
+        longSize(signature.signerIndex.toLong()) + longSize(signature.keyIndex.toLong()) + stringSize(signature.signature.bytes)
+
+    private fun stringSize(value: ByteArray): Int =
+        if (value.size == 1 && value[0] >= 0) 1 else headerSize(value.size) + value.size
+
+    private fun longSize(value: Long): Int {
+        val length = longLength(value)
+        return if (length == 1 && value < OFFSET_SHORT_STRING) 1 else 1 + length
+    }
+
+    private fun listSize(contentLength: Int): Int = headerSize(contentLength) + contentLength
+
+    private fun headerSize(length: Int): Int = if (length < SHORT_LENGTH_LIMIT) 1 else 1 + intLength(length)
+
+    private fun longLength(value: Long): Int = (Long.SIZE_BITS - java.lang.Long.numberOfLeadingZeros(value) + 7) / 8
+
+    private fun intLength(value: Int): Int = (Int.SIZE_BITS - Integer.numberOfLeadingZeros(value) + 7) / 8
+
+    private class Writer(size: Int) {
+        val bytes = ByteArray(size)
+        private var position = 0
+
+        fun writePayload(tx: FlowTransaction, length: Int) {
+            writeListHeader(length)
+            writeString(tx.script.bytes)
+            writeListHeader(tx.arguments.sumOf { stringSize(it.bytes) })
+            tx.arguments.forEach { writeString(it.bytes) }
+            writeString(tx.referenceBlockId.bytes)
+            writeLong(tx.gasLimit)
+            writeString(tx.proposalKey.address.bytes)
+            writeLong(tx.proposalKey.keyIndex.toLong())
+            writeLong(tx.proposalKey.sequenceNumber)
+            writeString(tx.payerAddress.bytes)
+            writeListHeader(tx.authorizers.sumOf { stringSize(it.bytes) })
+            tx.authorizers.forEach { writeString(it.bytes) }
+        }
+
+        fun writeSignatures(signatures: List<FlowTransactionSignature>, length: Int) {
+            writeListHeader(length)
+            for (signature in signatures) {
+                writeListHeader(signatureLength(signature))
+                writeLong(signature.signerIndex.toLong())
+                writeLong(signature.keyIndex.toLong())
+                writeString(signature.signature.bytes)
+            }
+        }
+
+        fun writeListHeader(length: Int) = writeHeader(OFFSET_SHORT_LIST, OFFSET_LONG_LIST, length)
+
+        fun writeString(value: ByteArray) {
+            if (value.size == 1 && value[0] >= 0) {
+                bytes[position++] = value[0]
+                return
+            }
+            writeHeader(OFFSET_SHORT_STRING, OFFSET_LONG_STRING, value.size)
+            System.arraycopy(value, 0, bytes, position, value.size)
+            position += value.size
+        }
+
+        fun writeLong(value: Long) {
+            val length = longLength(value)
+            if (length == 1 && value < OFFSET_SHORT_STRING) {
+                bytes[position++] = value.toByte()
+                return
+            }
+            bytes[position++] = (OFFSET_SHORT_STRING + length).toByte()
+            writeBigEndian(value, length)
+        }
+
+        private fun writeHeader(shortOffset: Int, longOffset: Int, length: Int) {
+            if (length < SHORT_LENGTH_LIMIT) {
+                bytes[position++] = (shortOffset + length).toByte()
+                return
+            }
+            val lengthOfLength = intLength(length)
+            bytes[position++] = (longOffset + lengthOfLength).toByte()
+            writeBigEndian(length.toLong(), lengthOfLength)
+        }
+
+        private fun writeBigEndian(value: Long, length: Int) {
+            for (i in length - 1 downTo 0) {
+                bytes[position++] = (value ushr (i * 8)).toByte()
+            }
+        }
+    }
+
+    private class Reader(private val bytes: ByteArray) {
+        private var position = 0
+
+        // returns the offset at which the list ends
+        fun readListHeader(): Int {
+            val prefix = next()
+            require(prefix >= OFFSET_SHORT_LIST) { "Expected an RLP list at offset ${position - 1}" }
+            val length = if (prefix <= OFFSET_LONG_LIST) prefix - OFFSET_SHORT_LIST else readLength(prefix - OFFSET_LONG_LIST)
+            return end(length)
+        }
+
+        fun readString(): ByteArray {
+            val prefix = next()
+            if (prefix < OFFSET_SHORT_STRING) {
+                return byteArrayOf(prefix.toByte())
+            }
+            require(prefix < OFFSET_SHORT_LIST) { "Expected an RLP string at offset ${position - 1}" }
+            val length = if (prefix <= OFFSET_LONG_STRING) prefix - OFFSET_SHORT_STRING else readLength(prefix - OFFSET_LONG_STRING)
+            val end = end(length)
+            return bytes.copyOfRange(position, end).also { position = end }
+        }
+
+        fun readLong(): Long {
+            val value = readString()
+            require(value.size <= Long.SIZE_BYTES) { "RLP integer too large" }
+            return value.fold(0L) { acc, b -> (acc shl 8) or (b.toLong() and 0xff) }
+        }
+
+        fun readSignature(): EnvelopeSignature {
+            val end = readListHeader()
+            val signature = EnvelopeSignature(
+                signerIndex = readLong().toInt(),
+                keyIndex = readLong().toInt(),
+                signature = readString()
+            )
+            expectEnd(end)
+            return signature
+        }
+
+        fun <T> readList(item: () -> T): List<T> {
+            val end = readListHeader()
+            val ret = mutableListOf<T>()
+            while (position < end) {
+                ret.add(item())
+            }
+            expectEnd(end)
+            return ret
+        }
+
+        fun expectEnd(end: Int) {
+            require(position == end) { "Malformed RLP transaction at offset $position" }
+        }
+
+        private fun readLength(lengthOfLength: Int): Int {
+            require(lengthOfLength <= Int.SIZE_BYTES) { "RLP length too large" }
+            var length = 0
+            repeat(lengthOfLength) { length = (length shl 8) or next() }
+            require(length >= 0) { "RLP length too large" }
+            return length
+        }
+
+        private fun end(length: Int): Int {
+            require(length <= bytes.size - position) { "RLP item exceeds input at offset $position" }
+            return position + length
+        }
+
+        private fun next(): Int {
+            require(position < bytes.size) { "Unexpected end of RLP input" }
+            return bytes[position++].toInt() and 0xff
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.google.protobuf.ByteString
 import com.google.protobuf.UnsafeByteOperations
 import org.onflow.flow.sdk.cadence.EventField
 import org.onflow.flow.sdk.cadence.Field
+import org.onflow.flow.sdk.impl.TransactionRlp
 import org.onflow.protobuf.access.Access
 import org.onflow.protobuf.entities.*
 import org.tdf.rlp.RLP
@@ -11,6 +12,7 @@ import org.tdf.rlp.RLPCodec
 import java.io.Serializable
 import java.math.BigDecimal
 import java.math.BigInteger
+import java.nio.ByteBuffer
 import java.time.LocalDateTime
 
 private const val FLOW_ID_SIZE_BYTES = 32
@@ -115,6 +117,33 @@ interface Hasher {
     fun hashAsHexString(bytes: ByteArray): String = hash(bytes).bytesToHex()
 }
 
+/**
+ * Incremental hasher, [digest] returns the hash of everything passed to [update] since the previous digest and
+ * resets the hasher. Instances are not thread safe.
+ */
+interface StreamingHasher {
+    fun update(bytes: ByteArray, off: Int, len: Int)
+
+    fun update(bytes: ByteArray) = update(bytes, 0, bytes.size)
+
+    // consumes the remaining bytes of the buffer
+    fun update(buffer: ByteBuffer) {
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining())
+            buffer.position(buffer.limit())
+            return
+        }
+        val chunk = ByteArray(minOf(buffer.remaining(), 4096))
+        while (buffer.hasRemaining()) {
+            val len = minOf(buffer.remaining(), chunk.size)
+            buffer.get(chunk, 0, len)
+            update(chunk, 0, len)
+        }
+    }
+
+    fun digest(): ByteArray
+}
+
 data class FlowAccount(
     val address: FlowAddress,
     val balance: BigDecimal,
@@ -377,7 +406,31 @@ data class FlowTransaction(
     val payloadSignatures: List<FlowTransactionSignature> = emptyList(),
     val envelopeSignatures: List<FlowTransactionSignature> = emptyList()
 ) : Serializable {
-    private val payload: Payload
+    // encodings and signer lookups are derived from immutable fields only, so each instance computes them at most
+    // once; the caches are transient and simply recomputed after deserialization
+    @Transient @Volatile
+    private var cachedPayload: ByteArray? = null
+
+    @Transient @Volatile
+    private var cachedAuthorizationEnvelope: ByteArray? = null
+
+    @Transient @Volatile
+    private var cachedPaymentEnvelope: ByteArray? = null
+
+    @Transient @Volatile
+    private var cachedTransaction: ByteArray? = null
+
+    @Transient @Volatile
+    private var cachedId: FlowId? = null
+
+    @Transient @Volatile
+    private var cachedSignerList: List<FlowAddress>? = null
+
+    @Transient @Volatile
+    private var cachedSignerMap: Map<FlowAddress, Int>? = null
+
+    // object form of the encodings for RLPCodec, kept as the reference TransactionRlp is checked against
+    internal val payload: Payload
         get() = Payload(
             script = script.bytes,
             arguments = arguments.map { it.bytes },
@@ -390,7 +443,7 @@ data class FlowTransaction(
             authorizers = authorizers.map { it.bytes }
         )
 
-    private val authorization: PayloadEnvelope
+    internal val authorization: PayloadEnvelope
         get() = PayloadEnvelope(
             payload = payload,
             payloadSignatures = payloadSignatures.map {
@@ -402,7 +455,7 @@ data class FlowTransaction(
             }
         )
 
-    private val payment: PaymentEnvelope
+    internal val payment: PaymentEnvelope
         get() = PaymentEnvelope(
             payloadEnvelope = authorization,
             envelopeSignatures = envelopeSignatures.map {
@@ -414,7 +467,7 @@ data class FlowTransaction(
             }
         )
 
-    private val transaction: TransactionEnvelope
+    internal val transaction: TransactionEnvelope
         get() = TransactionEnvelope(
             payload = payload,
             payloadSignatures = payloadSignatures.map {
@@ -433,14 +486,20 @@ data class FlowTransaction(
             }
         )
 
-    val canonicalPayload: ByteArray get() = RLPCodec.encode(payload)
-    val canonicalAuthorizationEnvelope: ByteArray get() = RLPCodec.encode(authorization)
-    val canonicalPaymentEnvelope: ByteArray get() = RLPCodec.encode(payment)
-    val canonicalTransaction: ByteArray get() = RLPCodec.encode(transaction)
-    val id: FlowId get() = FlowId.of(canonicalTransaction.sha3256Hash())
+    // the memoized encodings are shared, so only copies leave the sdk
+    internal val payloadBytes: ByteArray get() = cachedPayload ?: TransactionRlp.encodePayload(this).also { cachedPayload = it }
+    internal val authorizationEnvelopeBytes: ByteArray get() = cachedAuthorizationEnvelope ?: TransactionRlp.encodeAuthorizationEnvelope(this).also { cachedAuthorizationEnvelope = it }
+    private val paymentEnvelopeBytes: ByteArray get() = cachedPaymentEnvelope ?: TransactionRlp.encodePaymentEnvelope(this).also { cachedPaymentEnvelope = it }
+    private val transactionBytes: ByteArray get() = cachedTransaction ?: TransactionRlp.encodeTransaction(this).also { cachedTransaction = it }
+
+    val canonicalPayload: ByteArray get() = payloadBytes.copyOf()
+    val canonicalAuthorizationEnvelope: ByteArray get() = authorizationEnvelopeBytes.copyOf()
+    val canonicalPaymentEnvelope: ByteArray get() = paymentEnvelopeBytes.copyOf()
+    val canonicalTransaction: ByteArray get() = transactionBytes.copyOf()
+    val id: FlowId get() = cachedId ?: FlowId.of(transactionBytes.sha3256Hash()).also { cachedId = it }
 
     val signerList: List<FlowAddress>
-        get() {
+        get() = cachedSignerList ?: run {
             val ret = mutableListOf<FlowAddress>()
             val seen = mutableSetOf<FlowAddress>()
             val addSigner = fun(address: FlowAddress) {
@@ -453,15 +512,14 @@ data class FlowTransaction(
             addSigner(proposalKey.address)
             addSigner(payerAddress)
             authorizers.forEach(addSigner)
-            return ret
+            ret.toList().also { cachedSignerList = it }
         }
 
     val signerMap: Map<FlowAddress, Int>
-        get() {
-            return signerList
-                .withIndex()
-                .associate { it.value to it.index }
-        }
+        get() = cachedSignerMap ?: signerList
+            .withIndex()
+            .associate { it.value to it.index }
+            .also { cachedSignerMap = it }
 
     companion object {
         @JvmStatic
@@ -479,7 +537,7 @@ data class FlowTransaction(
 
         @JvmStatic
         fun of(bytes: ByteArray): FlowTransaction {
-            val txEnvelope: TransactionEnvelope = RLPCodec.decode(bytes, TransactionEnvelope::class.java)
+            val txEnvelope = TransactionRlp.decodeTransaction(bytes)
             var tx = FlowTransaction(
                 script = FlowScript(txEnvelope.payload.script),
                 arguments = txEnvelope.payload.arguments.map { FlowArgument(it) },
@@ -2,6 +2,10 @@ package org.onflow.flow.sdk
 
 import org.onflow.flow.sdk.cadence.Field
 import org.onflow.flow.sdk.cadence.JsonCadenceBuilder
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.Executor
+import java.util.concurrent.ForkJoinPool
 import java.util.concurrent.TimeoutException
 import java.util.logging.Logger
 
@@ -45,10 +49,14 @@ fun FlowAccessApi.flowTransaction(referenceBlockId: FlowId? = null, block: Trans
     return FlowTransactionStub(this, builder)
 }
 
-fun FlowAccessApi.simpleFlowTransaction(address: FlowAddress, signer: Signer, gasLimit: Number = 100, keyIndex: Number = 0, block: TransactionBuilder.() -> Unit): FlowTransactionStub =
+fun FlowAccessApi.simpleFlowTransaction(address: FlowAddress, signer: Signer, gasLimit: Number = 100, keyIndex: Number = 0, sequenceNumbers: SequenceNumberTracker? = null, block: TransactionBuilder.() -> Unit): FlowTransactionStub =
     this.flowTransaction {
         gasLimit(gasLimit)
-        proposeAndPay(address, keyIndex, signer)
+        if (sequenceNumbers != null) {
+            proposeAndPay(address, keyIndex, signer, sequenceNumbers)
+        } else {
+            proposeAndPay(address, keyIndex, signer)
+        }
         block(this)
     }
 
@@ -73,6 +81,18 @@ class FlowTransactionStub(
         return this
     }
 
+    /**
+     * Builds the transaction with [TransactionBuilder.buildAsync], so many stubs sharing an [AsyncSigner] can be
+     * signed in a pipeline before they are sent.
+     */
+    fun buildAsync(): CompletableFuture<FlowTransactionStub> {
+        checkNotBuilt()
+        return builder.buildAsync().thenApply {
+            transaction = it
+            this
+        }
+    }
+
     fun buildIfNecessary(): FlowTransactionStub {
         if (transaction == null) {
             return build()
@@ -89,6 +109,7 @@ class FlowTransactionStub(
                 is FlowAccessApi.AccessApiCallResponse.Error -> throw FlowException("Error while executing transaction: ${result.message}", result.throwable!!)
             }
         } catch (t: Throwable) {
+            builder.sequenceNumberTracker?.reportFailure(transaction!!.proposalKey, t)
             throw FlowException("Error while executing transaction", t)
         }
         return this
@@ -103,7 +124,11 @@ class FlowTransactionStub(
         }
 
         return when (sendResult) {
-            is FlowAccessApi.AccessApiCallResponse.Success -> waitForSeal(api, sendResult.data, pauseMs, timeoutMs)
+            is FlowAccessApi.AccessApiCallResponse.Success -> waitForSeal(api, sendResult.data, pauseMs, timeoutMs).also {
+                if (it is FlowAccessApi.AccessApiCallResponse.Success) {
+                    reportResult(it.data)
+                }
+            }
             is FlowAccessApi.AccessApiCallResponse.Error -> sendResult
         }
     }
@@ -111,7 +136,7 @@ class FlowTransactionStub(
     fun getResult(): FlowTransactionResult {
         checkSent()
         return when (val result = api.getTransactionResultById(transactionId!!)) {
-            is FlowAccessApi.AccessApiCallResponse.Success -> result.data
+            is FlowAccessApi.AccessApiCallResponse.Success -> result.data.also { reportResult(it) }
             is FlowAccessApi.AccessApiCallResponse.Error -> throw FlowException("Transaction wasn't found: ${result.message}", result.throwable!!)
         }
     }
@@ -119,11 +144,24 @@ class FlowTransactionStub(
     fun waitForSeal(pauseMs: Number = 500L, timeoutMs: Number = 10_000L): FlowTransactionResult {
         checkSent()
         return when (val result = waitForSeal(api, transactionId!!, pauseMs, timeoutMs)) {
-            is FlowAccessApi.AccessApiCallResponse.Success -> result.data
+            is FlowAccessApi.AccessApiCallResponse.Success -> result.data.also { reportResult(it) }
             is FlowAccessApi.AccessApiCallResponse.Error -> throw IllegalStateException("Failed to wait for seal: ${result.message}", result.throwable)
         }
     }
 
+    /**
+     * Watches the sent transaction through [tracker] instead of polling it from the calling thread.
+     */
+    @JvmOverloads
+    fun track(tracker: TransactionStatusTracker, status: FlowTransactionStatus = FlowTransactionStatus.SEALED): CompletableFuture<FlowTransactionResult> {
+        checkSent()
+        return tracker.track(transaction!!, status).thenApply { it.also { result -> reportResult(result) } }
+    }
+
+    private fun reportResult(result: FlowTransactionResult) {
+        builder.sequenceNumberTracker?.reportResult(transaction!!.proposalKey, result)
+    }
+
     fun getResult(
         pauseMs: Number = 500L,
         timeoutMs: Number = 10_000L,
@@ -147,6 +185,10 @@ class TransactionBuilder(
     val api: FlowAccessApi? = null
 ) {
     var addressRegistry: AddressRegistry = Flow.DEFAULT_ADDRESS_REGISTRY
+    var sequenceNumberTracker: SequenceNumberTracker? = null
+
+    // signs independent signatures concurrently when set, e.g. `Dispatchers.IO.asExecutor()` for coroutine users
+    var signingExecutor: Executor? = null
     private var _chainId: FlowChainId = Flow.DEFAULT_CHAIN_ID
     private var _script: FlowScript? = null
     private var _arguments: MutableList<FlowArgument> = mutableListOf()
@@ -166,6 +208,10 @@ class TransactionBuilder(
         addressRegistry(block())
     }
 
+    fun signingExecutor(signingExecutor: Executor) {
+        this.signingExecutor = signingExecutor
+    }
+
     var script: FlowScript
         get() { return _script!! }
         set(value) { _script = value }
@@ -273,6 +319,10 @@ class TransactionBuilder(
             )
         )
     }
+    fun proposalKey(address: FlowAddress, keyIndex: Number, sequenceNumbers: SequenceNumberTracker) {
+        sequenceNumberTracker = sequenceNumbers
+        proposalKey(sequenceNumbers.proposalKey(address, keyIndex.toInt()))
+    }
     fun proposalKey(proposalKey: FlowTransactionProposalKeyBuilder.() -> Unit) {
         val builder = FlowTransactionProposalKeyBuilder(this.api)
         proposalKey(builder)
@@ -295,6 +345,12 @@ class TransactionBuilder(
         proposeAndPay(address, keyIndex, signer, account.keys[keyIndex.toInt()].sequenceNumber)
     }
 
+    fun proposeAndPay(address: FlowAddress, keyIndex: Number, signer: Signer, sequenceNumbers: SequenceNumberTracker) {
+        proposalKey(address, keyIndex, sequenceNumbers)
+        payerAddress(address)
+        signature(address, keyIndex, signer)
+    }
+
     var payerAddress: FlowAddress
         get() { return _payerAddress!! }
         set(value) { _payerAddress = value }
@@ -372,6 +428,15 @@ class TransactionBuilder(
             )
         )
     }
+    fun signature(address: FlowAddress, keyIndex: Number, signer: AsyncSigner) {
+        signature(
+            PendingSignature(
+                address = address,
+                keyIndex = keyIndex,
+                asyncSigner = signer
+            )
+        )
+    }
 
     var payloadSignatures: List<PendingSignature>
         get() { return _payloadSignatures }
@@ -412,6 +477,15 @@ class TransactionBuilder(
             )
         )
     }
+    fun payloadSignature(address: FlowAddress, keyIndex: Number, signer: AsyncSigner) {
+        payloadSignature(
+            PendingSignature(
+                address = address,
+                keyIndex = keyIndex,
+                asyncSigner = signer
+            )
+        )
+    }
 
     var envelopeSignatures: List<PendingSignature>
         get() { return _envelopeSignatures }
@@ -459,17 +533,21 @@ class TransactionBuilder(
             )
         )
     }
-
-    fun build(): FlowTransaction {
-        var tx = FlowTransaction(
-            script = checkNotNull(_script) { "script of FlowTransaction is required" },
-            arguments = _arguments,
-            referenceBlockId = checkNotNull(_referenceBlockId) { "referenceBlockId of FlowTransaction is required" },
-            gasLimit = checkNotNull(_gasLimit?.toLong()) { "gasLimit of FlowTransaction is required" },
-            proposalKey = checkNotNull(_proposalKey) { "proposalKey of FlowTransaction is required" },
-            payerAddress = checkNotNull(_payerAddress) { "payerAddress of FlowTransaction is required" },
-            authorizers = _authorizers
+    fun envelopeSignature(address: FlowAddress, keyIndex: Number, signer: AsyncSigner) {
+        envelopeSignature(
+            PendingSignature(
+                address = address,
+                keyIndex = keyIndex,
+                asyncSigner = signer
+            )
         )
+    }
+
+    fun build(): FlowTransaction = build(signingExecutor)
+
+    // signatures of a set are made concurrently on executor when it is not null
+    private fun build(executor: Executor?): FlowTransaction {
+        var tx = unsignedTransaction()
 
         if (signatures.isNotEmpty() && (payloadSignatures.isNotEmpty() || envelopeSignatures.isNotEmpty())) {
             Logger.getLogger(TransactionBuilder::class.qualifiedName).warning(
@@ -480,24 +558,123 @@ class TransactionBuilder(
             )
         }
 
-        if (signatures.isNotEmpty()) {
-            for (pending in signatures.filter { it.address != payerAddress }) {
-                tx = pending.applyAsPayloadSignature(tx)
-            }
-            for (pending in signatures.filter { it.address == payerAddress }) {
-                tx = pending.applyAsEnvelopeSignature(tx)
-            }
+        for ((payload, envelope) in signatureSets()) {
+            tx = applySignatures(tx, payload, envelope, executor)
         }
+        return tx
+    }
 
-        if (payloadSignatures.isNotEmpty() || envelopeSignatures.isNotEmpty()) {
-            for (pending in payloadSignatures) {
-                tx = pending.applyAsPayloadSignature(tx)
+    /**
+     * Builds the transaction without blocking on [AsyncSigner]s: the payload signatures are requested together and
+     * the envelope signatures once they completed. Signatures whose signer index depends on the order they are
+     * added in are signed one at a time on [signingExecutor], or the common pool.
+     */
+    fun buildAsync(): CompletableFuture<FlowTransaction> {
+        val tx = try {
+            unsignedTransaction()
+        } catch (e: Exception) {
+            return CompletableFuture.failedFuture(e)
+        }
+        val sets = signatureSets()
+        if (sets.isEmpty()) {
+            return CompletableFuture.completedFuture(tx)
+        }
+        val (payload, envelope) = sets.first()
+        if (sets.size > 1 || !canSignInOnePass(tx, payload + envelope)) {
+            // already running on the signing executor, so the signatures are made inline instead of waiting for
+            // tasks queued behind this one
+            return CompletableFuture.supplyAsync({ build(null) }, signingExecutor ?: ForkJoinPool.commonPool())
+        }
+
+        val signerMap = tx.signerMap
+        return signAsync(payload, signerMap, { tx.payloadBytes }, "a payload signature").thenCompose { payloadSignatures ->
+            val authorized = if (payload.isEmpty()) tx else tx.copy(payloadSignatures = payloadSignatures.sortedWith(SIGNATURE_ORDER))
+            signAsync(envelope, signerMap, { authorized.authorizationEnvelopeBytes }, "an envelope signature").thenApply { envelopeSignatures ->
+                if (envelope.isEmpty()) authorized else authorized.copy(envelopeSignatures = envelopeSignatures.sortedWith(SIGNATURE_ORDER))
             }
-            for (pending in envelopeSignatures) {
-                tx = pending.applyAsEnvelopeSignature(tx)
+        }
+    }
+
+    private fun unsignedTransaction(): FlowTransaction = FlowTransaction(
+        script = checkNotNull(_script) { "script of FlowTransaction is required" },
+        // copied, the transaction memoizes its encodings and must not see later changes to the builder
+        arguments = _arguments.toList(),
+        referenceBlockId = checkNotNull(_referenceBlockId) { "referenceBlockId of FlowTransaction is required" },
+        gasLimit = checkNotNull(_gasLimit?.toLong()) { "gasLimit of FlowTransaction is required" },
+        proposalKey = checkNotNull(_proposalKey) { "proposalKey of FlowTransaction is required" },
+        payerAddress = checkNotNull(_payerAddress) { "payerAddress of FlowTransaction is required" },
+        authorizers = _authorizers.toList()
+    )
+
+    // pairs of payload and envelope signatures, applied in this order
+    private fun signatureSets(): List<Pair<List<PendingSignature>, List<PendingSignature>>> = listOfNotNull(
+        if (signatures.isNotEmpty()) signatures.filter { it.address != payerAddress } to signatures.filter { it.address == payerAddress } else null,
+        if (payloadSignatures.isNotEmpty() || envelopeSignatures.isNotEmpty()) payloadSignatures to envelopeSignatures else null
+    )
+
+    // prepared signatures and signers outside of the transaction get their signer index from the order in which
+    // signatures are added, so these have to be applied one at a time
+    private fun canSignInOnePass(tx: FlowTransaction, pending: List<PendingSignature>): Boolean {
+        val signerMap = tx.signerMap
+        return tx.payloadSignatures.isEmpty() && tx.envelopeSignatures.isEmpty() && pending.all { it.prepared == null && it.address in signerMap }
+    }
+
+    private fun applySignatures(tx: FlowTransaction, payload: List<PendingSignature>, envelope: List<PendingSignature>, executor: Executor?): FlowTransaction {
+        if (!canSignInOnePass(tx, payload + envelope)) {
+            var ret = tx
+            payload.forEach { ret = it.applyAsPayloadSignature(ret) }
+            envelope.forEach { ret = it.applyAsEnvelopeSignature(ret) }
+            return ret
+        }
+
+        // every signer index is known up front: sign the payload once, then the envelope over all payload signatures
+        val signerMap = tx.signerMap
+        val authorized = if (payload.isEmpty()) {
+            tx
+        } else {
+            tx.copy(
+                payloadSignatures = sign(payload, signerMap, { tx.payloadBytes }, "a payload signature", executor).sortedWith(SIGNATURE_ORDER)
+            )
+        }
+        if (envelope.isEmpty()) {
+            return authorized
+        }
+        return authorized.copy(
+            envelopeSignatures = sign(envelope, signerMap, { authorized.authorizationEnvelopeBytes }, "an envelope signature", executor).sortedWith(SIGNATURE_ORDER)
+        )
+    }
+
+    private fun sign(pending: List<PendingSignature>, signerMap: Map<FlowAddress, Int>, message: () -> ByteArray, kind: String, executor: Executor?): List<FlowTransactionSignature> {
+        if (executor == null || pending.count { it.signature == null && it.signer != null } < 2) {
+            return pending.map { it.toSignature(signerMap.getValue(it.address!!), message, kind) }
+        }
+        // all signatures of a set sign the same bytes, so they are encoded once before signing concurrently
+        val bytes = message()
+        val futures = pending.map {
+            CompletableFuture.supplyAsync({ it.toSignature(signerMap.getValue(it.address!!), { bytes }, kind) }, executor)
+        }
+        try {
+            return futures.map { it.join() }
+        } catch (e: CompletionException) {
+            throw e.cause ?: e
+        }
+    }
+
+    private fun signAsync(pending: List<PendingSignature>, signerMap: Map<FlowAddress, Int>, message: () -> ByteArray, kind: String): CompletableFuture<List<FlowTransactionSignature>> {
+        val executor = signingExecutor
+        val futures = pending.map {
+            val signerIndex = signerMap.getValue(it.address!!)
+            if (executor != null && it.signature == null && it.signer != null) {
+                CompletableFuture.supplyAsync({ it.toSignature(signerIndex, message, kind) }, executor)
+            } else {
+                it.toSignatureAsync(signerIndex, message, kind)
             }
         }
-        return tx
+        return CompletableFuture.allOf(*futures.toTypedArray()).thenApply { futures.map { it.join() } }
+    }
+
+    private companion object {
+        val SIGNATURE_ORDER = compareBy<FlowTransactionSignature> { it.signerIndex }.thenBy { it.keyIndex }
     }
 }
 
@@ -507,6 +684,7 @@ class PendingSignature(
     val keyIndex: Number? = null,
     val signer: Signer? = null,
     val signature: FlowSignature? = null,
+    val asyncSigner: AsyncSigner? = null
 ) {
     fun applyAsPayloadSignature(tx: FlowTransaction): FlowTransaction =
         when {
@@ -530,9 +708,50 @@ class PendingSignature(
                     signer = signer
                 )
             }
+            asyncSigner != null -> {
+                tx.addPayloadSignature(
+                    address = checkNotNull(address) { "address of FlowTransactionSignature required" },
+                    keyIndex = checkNotNull(keyIndex?.toInt()) { "keyIndex of FlowTransactionSignature required" },
+                    signature = FlowSignature(join(asyncSigner.signAsTransactionAsync(tx.canonicalPayload)))
+                )
+            }
             else -> throw IllegalStateException("One of prepared, signature, or signer must be specified for a payload signature")
         }
 
+    internal fun toSignature(signerIndex: Int, message: () -> ByteArray, kind: String): FlowTransactionSignature =
+        FlowTransactionSignature(
+            address = checkNotNull(address) { "address of FlowTransactionSignature required" },
+            signerIndex = signerIndex,
+            keyIndex = checkNotNull(keyIndex?.toInt()) { "keyIndex of FlowTransactionSignature required" },
+            // every signer gets its own copy, the message is the memoized encoding of the transaction
+            signature = when {
+                signature != null -> signature
+                signer != null -> FlowSignature(signer.signAsTransaction(message().copyOf()))
+                asyncSigner != null -> FlowSignature(join(asyncSigner.signAsTransactionAsync(message().copyOf())))
+                else -> throw IllegalStateException("One of prepared, signature, or signer must be specified for $kind")
+            }
+        )
+
+    internal fun toSignatureAsync(signerIndex: Int, message: () -> ByteArray, kind: String): CompletableFuture<FlowTransactionSignature> {
+        if (signature == null && signer == null && asyncSigner != null) {
+            return asyncSigner.signAsTransactionAsync(message().copyOf()).thenApply {
+                PendingSignature(address = address, keyIndex = keyIndex, signature = FlowSignature(it)).toSignature(signerIndex, message, kind)
+            }
+        }
+        return try {
+            CompletableFuture.completedFuture(toSignature(signerIndex, message, kind))
+        } catch (e: Exception) {
+            CompletableFuture.failedFuture(e)
+        }
+    }
+
+    private fun join(signature: CompletableFuture<ByteArray>): ByteArray =
+        try {
+            signature.join()
+        } catch (e: CompletionException) {
+            throw e.cause ?: e
+        }
+
     fun applyAsEnvelopeSignature(tx: FlowTransaction): FlowTransaction =
         when {
             prepared != null -> {
@@ -555,6 +774,13 @@ class PendingSignature(
                     signer = signer
                 )
             }
+            asyncSigner != null -> {
+                tx.addEnvelopeSignature(
+                    address = checkNotNull(address) { "address of FlowTransactionSignature required" },
+                    keyIndex = checkNotNull(keyIndex?.toInt()) { "keyIndex of FlowTransactionSignature required" },
+                    signature = FlowSignature(join(asyncSigner.signAsTransactionAsync(tx.canonicalAuthorizationEnvelope)))
+                )
+            }
             else -> throw IllegalStateException("One of prepared, signature, or signer must be specified for an envelope signature")
         }
 }
@@ -0,0 +1,101 @@
+package org.onflow.flow.sdk
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.onflow.flow.sdk.crypto.Crypto
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+
+class AsyncSignerTest {
+    // returns the digests as their signatures
+    private class RecordingBatchSigner : BatchSigner {
+        val batches = mutableListOf<Int>()
+
+        @Synchronized
+        override fun signDigests(digests: List<ByteArray>): CompletableFuture<List<ByteArray>> {
+            batches.add(digests.size)
+            return CompletableFuture.completedFuture(digests)
+        }
+    }
+
+    @Test
+    fun `Test full batches are signed in one call`() {
+        val delegate = RecordingBatchSigner()
+        val signer = BatchingSigner(delegate, maxBatchSize = 4, maxDelay = Duration.ofMinutes(1))
+
+        val messages = List(8) { byteArrayOf(it.toByte()) }
+        val signatures = messages.map { signer.signAsync(it) }
+
+        messages.forEachIndexed { i, message -> assertArrayEquals(message.sha3256Hash(), signatures[i].get(5, TimeUnit.SECONDS)) }
+        assertEquals(listOf(4, 4), delegate.batches)
+        signer.close()
+    }
+
+    @Test
+    fun `Test partial batch is flushed after the delay`() {
+        val delegate = RecordingBatchSigner()
+        val signer = BatchingSigner(delegate, maxBatchSize = 100, maxDelay = Duration.ofMillis(10))
+
+        val signatures = List(3) { signer.signAsync(byteArrayOf(it.toByte())) }
+
+        signatures.forEach { it.get(5, TimeUnit.SECONDS) }
+        assertEquals(listOf(3), delegate.batches)
+        signer.close()
+    }
+
+    @Test
+    fun `Test domain tagged messages are sent as the digest of tag and message`() {
+        val delegate = RecordingBatchSigner()
+        val signer = BatchingSigner(delegate, maxBatchSize = 1)
+        val message = "message".toByteArray()
+
+        val signature = signer.signAsTransactionAsync(message).get(5, TimeUnit.SECONDS)
+
+        assertArrayEquals((DomainTag.TRANSACTION_DOMAIN_TAG + message).sha3256Hash(), signature)
+        signer.close()
+    }
+
+    @Test
+    fun `Test local batch signer matches the blocking deterministic signer`() {
+        val privateKey = Crypto.generateKeyPair(SignatureAlgorithm.ECDSA_P256).private
+        val message = "message".toByteArray()
+
+        val signature = LocalBatchSigner(privateKey).signAsTransactionAsync(message).get(5, TimeUnit.SECONDS)
+
+        assertArrayEquals(Crypto.getDeterministicSigner(privateKey).signAsTransaction(message), signature)
+    }
+
+    @Test
+    fun `Test batch failure fails every request`() {
+        val signer = BatchingSigner(
+            object : BatchSigner {
+                override fun signDigests(digests: List<ByteArray>): CompletableFuture<List<ByteArray>> = CompletableFuture.failedFuture(IllegalStateException("unavailable"))
+            },
+            maxBatchSize = 2
+        )
+
+        val signatures = List(2) { signer.signAsync(byteArrayOf(it.toByte())) }
+
+        signatures.forEach {
+            val error = assertThrows<ExecutionException> { it.get(5, TimeUnit.SECONDS) }
+            assertTrue(error.cause is IllegalStateException)
+        }
+        signer.close()
+    }
+
+    @Test
+    fun `Test signing after close is rejected right away`() {
+        val delegate = RecordingBatchSigner()
+        val signer = BatchingSigner(delegate, maxBatchSize = 100, maxDelay = Duration.ofMinutes(1))
+        signer.close()
+
+        val signature = signer.signAsync(byteArrayOf(1))
+
+        val error = assertThrows<ExecutionException> { signature.get(5, TimeUnit.SECONDS) }
+        assertTrue(error.cause is IllegalStateException)
+        assertTrue(delegate.batches.isEmpty())
+    }
+}
@@ -0,0 +1,27 @@
+package org.onflow.flow.sdk
+
+import io.grpc.ManagedChannel
+import io.grpc.ManagedChannelBuilder
+import org.junit.jupiter.api.Test
+import org.mockito.Answers
+import org.mockito.Mockito.*
+import java.util.concurrent.Executor
+
+class FlowChannelOptionsTest {
+    @Test
+    fun `Test channel is built by the configured factory with the configured executors`() {
+        val builder = mock(ManagedChannelBuilder::class.java, Answers.RETURNS_SELF)
+        doReturn(mock(ManagedChannel::class.java)).`when`(builder).build()
+        val executor = Executor { it.run() }
+        val offloadExecutor = Executor { it.run() }
+        val factory = mock(FlowChannelOptions.BuilderFactory::class.java)
+        doReturn(builder).`when`(factory).newBuilder("access.example", 9001)
+
+        Flow.newAccessApi("access.example", 9001, channelOptions = FlowChannelOptions(executor, offloadExecutor, factory))
+
+        verify(factory).newBuilder("access.example", 9001)
+        verify(builder).executor(executor)
+        verify(builder).offloadExecutor(offloadExecutor)
+        verify(builder).usePlaintext()
+    }
+}
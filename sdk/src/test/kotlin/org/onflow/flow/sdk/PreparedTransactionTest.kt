@@ -0,0 +1,48 @@
+package org.onflow.flow.sdk
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.*
+
+class PreparedTransactionTest {
+    private val code = "import FungibleToken from 0xFUNGIBLETOKEN\ntransaction(amount: UFix64) {}"
+    private val proposer = FlowAddress("01")
+
+    private fun TransactionBuilder.bind(amount: String) {
+        argument { ufix64(amount) }
+        referenceBlockId(FlowId.of(ByteArray(32) { 1 }))
+        proposalKey(proposer, 0, 5)
+        payerAddress(proposer)
+    }
+
+    @Test
+    fun `Test script is processed once and shared by every transaction`() {
+        val registry = spy(AddressRegistry())
+        val prepared = PreparedTransaction(code, FlowChainId.TESTNET, addressRegistry = registry, gasLimit = 100)
+
+        val first = prepared.build { bind("1.0") }
+        val second = prepared.build { bind("2.0") }
+
+        verify(registry, times(1)).processScript(code, FlowChainId.TESTNET, mapOf())
+        assertSame(first.script, second.script)
+        assertEquals(100L, first.gasLimit)
+        assertNotEquals(first.arguments, second.arguments)
+    }
+
+    @Test
+    fun `Test prepared transaction matches the builder`() {
+        val prepared = PreparedTransaction(code, FlowChainId.TESTNET)
+
+        val expected = flowTransaction {
+            script(code, FlowChainId.TESTNET)
+            gasLimit(100)
+            bind("1.0")
+        }
+        val actual = prepared.build {
+            gasLimit(100)
+            bind("1.0")
+        }
+
+        assertEquals(expected.id, actual.id)
+    }
+}
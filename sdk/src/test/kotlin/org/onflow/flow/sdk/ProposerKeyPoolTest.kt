@@ -0,0 +1,123 @@
+package org.onflow.flow.sdk
+
+import io.grpc.Status
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.*
+import org.onflow.flow.sdk.crypto.Crypto
+import java.time.Duration
+
+class ProposerKeyPoolTest {
+    private val address = FlowAddress("01")
+    private val signer = mock(Signer::class.java)
+
+    private fun api(): FlowAccessApi {
+        val api = mock(FlowAccessApi::class.java)
+        val key = mock(FlowAccountKey::class.java)
+        `when`(key.sequenceNumber).thenReturn(0)
+        `when`(api.getAccountKeyAtLatestBlock(address, 0)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(key))
+        `when`(api.getAccountKeyAtLatestBlock(address, 1)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(key))
+        val sealed = header(100)
+        `when`(api.getLatestBlockHeader(true)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(sealed))
+        return api
+    }
+
+    private fun header(height: Long): FlowBlockHeader {
+        val header = mock(FlowBlockHeader::class.java)
+        `when`(header.id).thenReturn(FlowId.of(byteArrayOf(height.toByte())))
+        `when`(header.height).thenReturn(height)
+        return header
+    }
+
+    private fun result(status: FlowTransactionStatus, transactionId: FlowId): FlowTransactionResult {
+        val result = mock(FlowTransactionResult::class.java)
+        `when`(result.transactionId).thenReturn(transactionId)
+        `when`(result.status).thenReturn(status)
+        `when`(result.errorMessage).thenReturn("")
+        return result
+    }
+
+    @Test
+    fun `Test every lease gets a different key until the pool is exhausted`() {
+        val pool = ProposerKeyPool(api(), address, mapOf(0 to signer, 1 to signer))
+
+        val first = pool.tryAcquire()!!
+        val second = pool.tryAcquire()!!
+
+        assertNotEquals(first.keyIndex, second.keyIndex)
+        assertNull(pool.tryAcquire())
+
+        first.close()
+        first.close()
+
+        assertEquals(1, pool.availableKeys)
+        pool.close()
+    }
+
+    @Test
+    fun `Test key is released once the transaction is sealed`() {
+        val api = api()
+        val transactionId = FlowId("0a")
+        val previous = header(100)
+        val sealedBlock = header(101)
+        val pending = result(FlowTransactionStatus.PENDING, transactionId)
+        val sealed = result(FlowTransactionStatus.SEALED, transactionId)
+        `when`(api.getLatestBlockHeader(true)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(previous), FlowAccessApi.AccessApiCallResponse.Success(sealedBlock))
+        `when`(api.getBlockHeaderByHeight(101)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(sealedBlock))
+        `when`(api.getTransactionResultById(transactionId)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(pending))
+        `when`(api.getTransactionResultsByBlockId(sealedBlock.id)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(listOf(sealed)))
+        val pool = ProposerKeyPool(api, address, mapOf(0 to signer), pollInterval = Duration.ofMillis(10))
+        val lease = pool.acquire()
+        assertEquals(0L, lease.proposalKey.sequenceNumber)
+
+        pool.releaseWhenFinal(lease, transactionId)
+
+        val next = pool.acquire(Duration.ofSeconds(5))
+        assertNotNull(next)
+        assertEquals(1L, next!!.proposalKey.sequenceNumber)
+        // the seal is read from the block, the transaction itself is only looked up once when it is first tracked
+        verify(api, atMost(1)).getTransactionResultById(transactionId)
+        pool.close()
+    }
+
+    @Test
+    fun `Test expired transaction resyncs the key before it is leased again`() {
+        val api = api()
+        val transactionId = FlowId("0b")
+        val expired = result(FlowTransactionStatus.EXPIRED, transactionId)
+        `when`(api.getTransactionResultById(transactionId)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(expired))
+        val pool = ProposerKeyPool(api, address, mapOf(0 to signer), pollInterval = Duration.ofMillis(10))
+        val lease = pool.acquire()
+        lease.proposalKey
+
+        pool.releaseWhenFinal(lease, transactionId)
+
+        assertEquals(0L, pool.acquire(Duration.ofSeconds(5))!!.proposalKey.sequenceNumber)
+        verify(api, times(2)).getAccountKeyAtLatestBlock(address, 0)
+        pool.close()
+    }
+
+    @Test
+    fun `Test failed send resyncs the key before it is leased again`() {
+        val api = api()
+        val header = mock(FlowBlockHeader::class.java)
+        `when`(header.id).thenReturn(FlowId("0c"))
+        `when`(api.getLatestBlockHeader()).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(header))
+        `when`(api.sendTransaction(any())).thenReturn(FlowAccessApi.AccessApiCallResponse.Error("Failed to send transaction", Status.UNAVAILABLE.asRuntimeException()))
+        val keyPair = Crypto.generateKeyPair(SignatureAlgorithm.ECDSA_P256)
+        val pool = ProposerKeyPool(api, address, mapOf(0 to Crypto.getSigner(keyPair.private, HashAlgorithm.SHA3_256)))
+
+        assertThrows<FlowException> {
+            pool.send {
+                script("transaction {}")
+                gasLimit(100)
+            }
+        }
+
+        assertEquals(0L, pool.tryAcquire()!!.proposalKey.sequenceNumber)
+        verify(api, times(2)).getAccountKeyAtLatestBlock(address, 0)
+        pool.close()
+    }
+}
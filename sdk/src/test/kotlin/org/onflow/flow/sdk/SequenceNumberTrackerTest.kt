@@ -0,0 +1,106 @@
+package org.onflow.flow.sdk
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.*
+import org.onflow.flow.sdk.crypto.Crypto
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class SequenceNumberTrackerTest {
+    private val address = FlowAddress("01")
+
+    private fun api(vararg sequenceNumbers: Int): FlowAccessApi {
+        val api = mock(FlowAccessApi::class.java)
+        val responses = sequenceNumbers.map { number ->
+            val key = mock(FlowAccountKey::class.java)
+            `when`(key.sequenceNumber).thenReturn(number)
+            FlowAccessApi.AccessApiCallResponse.Success(key)
+        }
+        `when`(api.getAccountKeyAtLatestBlock(address, 0)).thenReturn(responses.first(), *responses.drop(1).toTypedArray())
+        return api
+    }
+
+    @Test
+    fun `Test sequence number is fetched once and then handed out locally`() {
+        val api = api(7)
+        val tracker = SequenceNumberTracker(api)
+
+        assertEquals(7L, tracker.next(address, 0))
+        assertEquals(8L, tracker.next(address, 0))
+        assertEquals(FlowTransactionProposalKey(address, 0, 9L), tracker.proposalKey(address, 0))
+        verify(api, times(1)).getAccountKeyAtLatestBlock(address, 0)
+    }
+
+    @Test
+    fun `Test concurrent callers never receive the same number`() {
+        val tracker = SequenceNumberTracker(api(0))
+        val executor = Executors.newFixedThreadPool(8)
+
+        val numbers = executor.invokeAll(List(200) { Callable { tracker.next(address, 0) } }).map { it.get() }
+        executor.shutdown()
+
+        assertEquals((0L until 200L).toSet(), numbers.toSet())
+    }
+
+    @Test
+    fun `Test invalid sequence number result resyncs the key`() {
+        val api = api(3, 10)
+        val tracker = SequenceNumberTracker(api)
+        val proposalKey = tracker.proposalKey(address, 0)
+        val result = mock(FlowTransactionResult::class.java)
+        `when`(result.errorMessage).thenReturn("[Error Code: 1007] invalid proposal key: public key 0 on account 01 has sequence number 10, but given 3")
+
+        assertTrue(tracker.reportResult(proposalKey, result))
+        assertEquals(10L, tracker.next(address, 0))
+    }
+
+    @Test
+    fun `Test invalid sequence number result of sendAndWaitForSeal resyncs the key`() {
+        val api = api(3, 10)
+        val tracker = SequenceNumberTracker(api)
+        val header = mock(FlowBlockHeader::class.java)
+        `when`(header.id).thenReturn(FlowId("0c"))
+        `when`(api.getLatestBlockHeader()).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(header))
+        val transactionId = FlowId("0a")
+        `when`(api.sendTransaction(any())).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(transactionId))
+        val result = mock(FlowTransactionResult::class.java)
+        `when`(result.status).thenReturn(FlowTransactionStatus.SEALED)
+        `when`(result.errorMessage).thenReturn("[Error Code: 1007] invalid proposal key: public key 0 on account 01 has sequence number 10, but given 3")
+        `when`(api.getTransactionResultById(transactionId)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(result))
+        val signer = Crypto.getSigner(Crypto.generateKeyPair(SignatureAlgorithm.ECDSA_P256).private, HashAlgorithm.SHA3_256)
+
+        api.flowTransaction {
+            script("transaction {}")
+            gasLimit(100)
+            proposalKey(address, 0, tracker)
+            payerAddress(address)
+            signature(address, 0, signer)
+        }.sendAndWaitForSeal(pauseMs = 0, timeoutMs = 1000)
+
+        assertEquals(10L, tracker.next(address, 0))
+    }
+
+    @Test
+    fun `Test other failures keep the local counter`() {
+        val api = api(3)
+        val tracker = SequenceNumberTracker(api)
+        val proposalKey = tracker.proposalKey(address, 0)
+
+        assertFalse(tracker.reportFailure(proposalKey, FlowException("[Error Code: 1052] invalid argument")))
+        assertEquals(4L, tracker.next(address, 0))
+        verify(api, times(1)).getAccountKeyAtLatestBlock(address, 0)
+    }
+
+    @Test
+    fun `Test transaction builder takes the proposal key from the tracker`() {
+        val tracker = SequenceNumberTracker(api(5))
+        val builder = TransactionBuilder()
+
+        builder.proposalKey(address, 0, tracker)
+
+        assertEquals(FlowTransactionProposalKey(address, 0, 5L), builder.proposalKey)
+        assertSame(tracker, builder.sequenceNumberTracker)
+    }
+}
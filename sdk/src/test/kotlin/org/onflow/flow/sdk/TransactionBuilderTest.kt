@@ -0,0 +1,184 @@
+package org.onflow.flow.sdk
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.onflow.flow.sdk.crypto.Crypto
+import java.util.concurrent.CyclicBarrier
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class TransactionBuilderTest {
+    private val proposer = FlowAddress("01")
+    private val payer = FlowAddress("02")
+    private val authorizers = (3..8).map { FlowAddress("0$it") }
+
+    // deterministic stand-in for a key, the signature is a hash of what was signed
+    private class HashSigner(private val salt: Byte) : Signer {
+        var calls = 0
+
+        override fun sign(bytes: ByteArray): ByteArray {
+            calls++
+            return (bytes + salt).sha3256Hash()
+        }
+    }
+
+    private fun unsigned() = FlowTransaction(
+        script = FlowScript("transaction {}"),
+        arguments = emptyList(),
+        referenceBlockId = FlowId.of(ByteArray(32) { 1 }),
+        gasLimit = 9999,
+        proposalKey = FlowTransactionProposalKey(proposer, 0, 5),
+        payerAddress = payer,
+        authorizers = authorizers
+    )
+
+    @Test
+    fun `Test single pass signing matches adding signatures one at a time`() {
+        val signers = (authorizers + proposer).reversed().associateWith { HashSigner(it.bytes.last()) }
+        val payerSigner = HashSigner(2)
+
+        val built = flowTransaction {
+            script(FlowScript("transaction {}"))
+            referenceBlockId(FlowId.of(ByteArray(32) { 1 }))
+            gasLimit(9999)
+            proposalKey(proposer, 0, 5)
+            payerAddress(payer)
+            authorizers(authorizers.toMutableList())
+            signers.forEach { (address, signer) -> signature(address, 1, signer) }
+            signature(proposer, 0, signers.getValue(proposer))
+            signature(payer, 0, payerSigner)
+        }
+
+        var expected = unsigned()
+        signers.forEach { (address, signer) -> expected = expected.addPayloadSignature(address, 1, signer) }
+        expected = expected.addPayloadSignature(proposer, 0, signers.getValue(proposer))
+        expected = expected.addEnvelopeSignature(payer, 0, payerSigner)
+
+        assertEquals(expected.payloadSignatures, built.payloadSignatures)
+        assertEquals(expected.envelopeSignatures, built.envelopeSignatures)
+        assertEquals(expected.id, built.id)
+        assertEquals(2, payerSigner.calls)
+    }
+
+    @Test
+    fun `Test payload signatures are signed concurrently on the signing executor`() {
+        // each signer waits for the others, so signing only completes when all of them run at once
+        val barrier = CyclicBarrier(authorizers.size)
+        val signer = object : Signer {
+            override fun sign(bytes: ByteArray): ByteArray {
+                barrier.await(5, TimeUnit.SECONDS)
+                return bytes.sha3256Hash()
+            }
+        }
+        val executor = Executors.newFixedThreadPool(authorizers.size)
+
+        val built = flowTransaction {
+            signingExecutor(executor)
+            script(FlowScript("transaction {}"))
+            referenceBlockId(FlowId.of(ByteArray(32) { 1 }))
+            gasLimit(9999)
+            proposalKey(proposer, 0, 5)
+            payerAddress(payer)
+            authorizers(authorizers.toMutableList())
+            authorizers.forEach { payloadSignature(it, 0, signer) }
+            envelopeSignature(payer, 0, HashSigner(2))
+        }
+        executor.shutdown()
+
+        assertEquals(authorizers, built.payloadSignatures.map { it.address })
+        assertEquals(listOf(payer), built.envelopeSignatures.map { it.address })
+    }
+
+    @Test
+    fun `Test signing failures are rethrown from build`() {
+        val executor = Executors.newFixedThreadPool(2)
+        val failing = object : Signer {
+            override fun sign(bytes: ByteArray): ByteArray = throw IllegalStateException("key unavailable")
+        }
+
+        val error = assertThrows(IllegalStateException::class.java) {
+            flowTransaction {
+                signingExecutor(executor)
+                script(FlowScript("transaction {}"))
+                referenceBlockId(FlowId.of(ByteArray(32) { 1 }))
+                gasLimit(9999)
+                proposalKey(proposer, 0, 5)
+                payerAddress(payer)
+                authorizers(authorizers.toMutableList())
+                payloadSignature(authorizers[0], 0, failing)
+                payloadSignature(authorizers[1], 0, failing)
+            }
+        }
+        executor.shutdown()
+
+        assertEquals("key unavailable", error.message)
+    }
+
+    @Test
+    fun `Test async signers produce the same transaction as blocking ones`() {
+        val keys = (authorizers + payer).associateWith { Crypto.generateKeyPair(SignatureAlgorithm.ECDSA_P256).private }
+        fun TransactionBuilder.common() {
+            script(FlowScript("transaction {}"))
+            referenceBlockId(FlowId.of(ByteArray(32) { 1 }))
+            gasLimit(9999)
+            proposalKey(proposer, 0, 5)
+            payerAddress(payer)
+            authorizers(authorizers.toMutableList())
+        }
+
+        val expected = flowTransaction {
+            common()
+            authorizers.forEach { payloadSignature(it, 0, Crypto.getDeterministicSigner(keys.getValue(it))) }
+            envelopeSignature(payer, 0, Crypto.getDeterministicSigner(keys.getValue(payer)))
+        }
+        val actual = TransactionBuilder().apply {
+            common()
+            authorizers.forEach { payloadSignature(it, 0, LocalBatchSigner(keys.getValue(it))) }
+            envelopeSignature(payer, 0, LocalBatchSigner(keys.getValue(payer)))
+        }.buildAsync().get(5, TimeUnit.SECONDS)
+
+        assertEquals(expected.payloadSignatures, actual.payloadSignatures)
+        assertEquals(expected.envelopeSignatures, actual.envelopeSignatures)
+        assertEquals(expected.id, actual.id)
+    }
+
+    @Test
+    fun `Test async build does not wait on its own single thread signing executor`() {
+        val executor = Executors.newFixedThreadPool(1)
+
+        // signatures and payloadSignatures together are built one set at a time on the signing executor
+        val built = TransactionBuilder().apply {
+            signingExecutor(executor)
+            script(FlowScript("transaction {}"))
+            referenceBlockId(FlowId.of(ByteArray(32) { 1 }))
+            gasLimit(9999)
+            proposalKey(proposer, 0, 5)
+            payerAddress(payer)
+            authorizers(authorizers.toMutableList())
+            signature(authorizers[0], 0, HashSigner(3))
+            signature(authorizers[1], 0, HashSigner(4))
+            payloadSignature(authorizers[2], 0, HashSigner(5))
+        }.buildAsync().get(5, TimeUnit.SECONDS)
+        executor.shutdown()
+
+        assertEquals(authorizers.take(3), built.payloadSignatures.map { it.address })
+    }
+
+    @Test
+    fun `Test prepared signatures keep their signer index`() {
+        val prepared = FlowTransactionSignature(proposer, 4, 0, FlowSignature("01"))
+
+        val built = flowTransaction {
+            script(FlowScript("transaction {}"))
+            referenceBlockId(FlowId.of(ByteArray(32) { 1 }))
+            gasLimit(9999)
+            proposalKey(proposer, 0, 5)
+            payerAddress(payer)
+            authorizers(authorizers.toMutableList())
+            payloadSignature(PendingSignature(prepared = prepared))
+            payloadSignature(authorizers[0], 0, FlowSignature("02"))
+        }
+
+        assertEquals(listOf(FlowTransactionSignature(authorizers[0], 2, 0, FlowSignature("02")), prepared), built.payloadSignatures)
+    }
+}
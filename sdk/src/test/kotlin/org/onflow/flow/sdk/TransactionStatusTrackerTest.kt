@@ -0,0 +1,128 @@
+package org.onflow.flow.sdk
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.*
+import java.time.Duration
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+
+class TransactionStatusTrackerTest {
+    private val pollInterval = Duration.ofMillis(10)
+
+    private fun header(height: Long): FlowAccessApi.AccessApiCallResponse<FlowBlockHeader> {
+        val header = mock(FlowBlockHeader::class.java)
+        `when`(header.height).thenReturn(height)
+        `when`(header.id).thenReturn(FlowId.of(byteArrayOf(height.toByte())))
+        return FlowAccessApi.AccessApiCallResponse.Success(header)
+    }
+
+    private fun result(transactionId: FlowId, status: FlowTransactionStatus): FlowTransactionResult {
+        val result = mock(FlowTransactionResult::class.java)
+        `when`(result.transactionId).thenReturn(transactionId)
+        `when`(result.status).thenReturn(status)
+        return result
+    }
+
+    @Test
+    fun `Test transactions sealed in a new block are completed from one call per block`() {
+        val api = mock(FlowAccessApi::class.java)
+        val first = FlowId("0a")
+        val second = FlowId("0b")
+        `when`(api.getLatestBlockHeader(true)).thenReturn(header(10), header(11))
+        `when`(api.getTransactionResultById(any())).thenAnswer { FlowAccessApi.AccessApiCallResponse.Success(result(it.getArgument(0), FlowTransactionStatus.PENDING)) }
+        `when`(api.getBlockHeaderByHeight(11)).thenReturn(header(11))
+        `when`(api.getTransactionResultsByBlockId(FlowId.of(byteArrayOf(11))))
+            .thenReturn(FlowAccessApi.AccessApiCallResponse.Success(listOf(result(first, FlowTransactionStatus.SEALED), result(second, FlowTransactionStatus.SEALED))))
+        val tracker = TransactionStatusTracker(api, pollInterval, Duration.ofMinutes(1))
+
+        val firstResult = tracker.track(first)
+        val secondResult = tracker.track(second)
+
+        assertEquals(first, firstResult.get(5, TimeUnit.SECONDS).transactionId)
+        assertEquals(second, secondResult.get(5, TimeUnit.SECONDS).transactionId)
+        verify(api, times(1)).getTransactionResultById(first)
+        verify(api, times(1)).getTransactionResultById(second)
+        assertEquals(0, tracker.trackedTransactions)
+        tracker.close()
+    }
+
+    @Test
+    fun `Test transaction already at the requested status completes on its first lookup`() {
+        val api = mock(FlowAccessApi::class.java)
+        val transactionId = FlowId("0c")
+        `when`(api.getLatestBlockHeader(true)).thenReturn(header(10))
+        `when`(api.getTransactionResultById(transactionId)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(result(transactionId, FlowTransactionStatus.EXECUTED)))
+        val tracker = TransactionStatusTracker(api, pollInterval)
+
+        val result = tracker.track(transactionId, FlowTransactionStatus.FINALIZED).get(5, TimeUnit.SECONDS)
+
+        assertEquals(FlowTransactionStatus.EXECUTED, result.status)
+        tracker.close()
+    }
+
+    @Test
+    fun `Test transactions waiting for finality are completed from finalized blocks`() {
+        val api = mock(FlowAccessApi::class.java)
+        val transactionId = FlowId("0e")
+        `when`(api.getLatestBlockHeader(true)).thenReturn(header(10))
+        `when`(api.getLatestBlockHeader(false)).thenReturn(header(12), header(13))
+        `when`(api.getTransactionResultById(transactionId)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(result(transactionId, FlowTransactionStatus.PENDING)))
+        `when`(api.getBlockHeaderByHeight(13)).thenReturn(header(13))
+        `when`(api.getTransactionResultsByBlockId(FlowId.of(byteArrayOf(13))))
+            .thenReturn(FlowAccessApi.AccessApiCallResponse.Success(listOf(result(transactionId, FlowTransactionStatus.FINALIZED))))
+        val tracker = TransactionStatusTracker(api, pollInterval, Duration.ofMinutes(1))
+
+        val result = tracker.track(transactionId, FlowTransactionStatus.FINALIZED).get(5, TimeUnit.SECONDS)
+
+        assertEquals(FlowTransactionStatus.FINALIZED, result.status)
+        verify(api, times(1)).getTransactionResultById(transactionId)
+        tracker.close()
+    }
+
+    @Test
+    fun `Test transaction is looked up again once the sealed blocks pass its expiry window`() {
+        val api = mock(FlowAccessApi::class.java)
+        val transaction = mock(FlowTransaction::class.java)
+        val transactionId = FlowId("0f")
+        val referenceBlockId = FlowId("ff")
+        `when`(transaction.id).thenReturn(transactionId)
+        `when`(transaction.referenceBlockId).thenReturn(referenceBlockId)
+        `when`(api.getBlockHeaderById(referenceBlockId)).thenReturn(header(5))
+        `when`(api.getLatestBlockHeader(true)).thenReturn(header(10), header(700))
+        `when`(api.getBlockHeaderByHeight(anyLong())).thenAnswer { header(it.getArgument(0)) }
+        `when`(api.getTransactionResultsByBlockId(any())).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(emptyList()))
+        `when`(api.getTransactionResultById(transactionId)).thenReturn(
+            FlowAccessApi.AccessApiCallResponse.Success(result(transactionId, FlowTransactionStatus.PENDING)),
+            FlowAccessApi.AccessApiCallResponse.Success(result(transactionId, FlowTransactionStatus.EXPIRED))
+        )
+        val tracker = TransactionStatusTracker(api, pollInterval, Duration.ZERO)
+
+        val result = tracker.track(transaction).get(5, TimeUnit.SECONDS)
+
+        assertEquals(FlowTransactionStatus.EXPIRED, result.status)
+        // no lookups between the first one and the one after the expiry window
+        verify(api, times(2)).getTransactionResultById(transactionId)
+        verify(api, never()).getTransactionById(any())
+        tracker.close()
+    }
+
+    @Test
+    fun `Test watch fails after its timeout`() {
+        val api = mock(FlowAccessApi::class.java)
+        val transactionId = FlowId("0d")
+        `when`(api.getLatestBlockHeader(true)).thenReturn(header(10))
+        `when`(api.getTransactionResultById(transactionId)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(result(transactionId, FlowTransactionStatus.PENDING)))
+        val tracker = TransactionStatusTracker(api, pollInterval)
+
+        val future = tracker.track(transactionId, timeout = Duration.ofMillis(50))
+
+        val error = assertThrows<ExecutionException> { future.get(5, TimeUnit.SECONDS) }
+        assertTrue(error.cause is TimeoutException)
+        tracker.close()
+    }
+}
@@ -3,6 +3,10 @@ package org.onflow.flow.sdk.crypto
 import org.onflow.flow.sdk.HashAlgorithm
 import org.junit.jupiter.api.Assertions.*
 import org.junit.jupiter.api.Test
+import org.onflow.flow.sdk.DomainTag
+import org.onflow.flow.sdk.SignatureAlgorithm
+import java.nio.ByteBuffer
+import kotlin.random.Random
 
 internal class HashTest {
     @Test
@@ -184,6 +188,35 @@ internal class HashTest {
         assertEquals("KMAC128 output size must be at least 32 bytes", exception.message)
     }
 
+    @Test
+    fun `Streaming hash matches one-shot hash`() {
+        val input = Random.nextBytes(10_000)
+
+        for (hashAlgo in listOf(HashAlgorithm.SHA2_256, HashAlgorithm.SHA3_256, HashAlgorithm.KECCAK256)) {
+            val expected = HasherImpl(hashAlgo).hash(input)
+            val hasher = Crypto.getStreamingHasher(hashAlgo)
+
+            hasher.update(input, 0, 3)
+            hasher.update(input.copyOfRange(3, 5000))
+            hasher.update(ByteBuffer.wrap(input, 5000, 2000))
+            hasher.update(ByteBuffer.allocateDirect(3000).put(input, 7000, 3000).flip())
+            assertArrayEquals(expected, hasher.digest())
+
+            // digest resets the hasher
+            hasher.update(input)
+            assertArrayEquals(expected, hasher.digest())
+        }
+    }
+
+    @Test
+    fun `Signing with a domain tag matches signing the concatenation`() {
+        val keyPair = Crypto.generateKeyPair(SignatureAlgorithm.ECDSA_P256)
+        val signer = Crypto.getDeterministicSigner(keyPair.private)
+        val message = Random.nextBytes(200)
+
+        assertArrayEquals(signer.sign(DomainTag.TRANSACTION_DOMAIN_TAG + message), signer.signAsTransaction(message))
+    }
+
     private fun hexStringToByteArray(hexString: String): ByteArray {
         val len = hexString.length
         val data = ByteArray(len / 2)
@@ -213,6 +213,68 @@ internal class SignTest {
         }
     }
 
+    @Test
+    fun `Test deterministic signer matches RFC 6979`() {
+        // RFC 6979 A.2.5, ECDSA with P-256 and SHA-256 over the message "sample"
+        val privateKey = Crypto.decodePrivateKey("c9afa9d845ba75166b5c215767b1d6934e50c3db36e89b127b8a622b120f6721", SignatureAlgorithm.ECDSA_P256)
+        val signer = Crypto.getDeterministicSigner(privateKey, HashAlgorithm.SHA2_256)
+
+        val signature = signer.sign("sample".toByteArray())
+
+        assertEquals(
+            "efd48b2aacb6a8fd1140dd9cd45e81d69d2c877b56aaf991c34d0ea84eaf3716" +
+                "f7cb1c942d657c41d436c7a1b6e29f65f3e900dbb9aff4064dc4ab2f843acda8",
+            signature.bytesToHex()
+        )
+    }
+
+    @Test
+    fun `Test deterministic signer correctness`() {
+        val supportedHashes = listOf(
+            HashAlgorithm.SHA2_256,
+            HashAlgorithm.SHA3_256,
+            HashAlgorithm.KECCAK256
+        )
+
+        supportedAlgos.forEach { algo ->
+            supportedHashes.forEach { hashAlgo ->
+                val keyPair = Crypto.generateKeyPair(algo.curve)
+                val signer = Crypto.getDeterministicSigner(keyPair.private, hashAlgo)
+                val message = Random.nextBytes(20)
+                val signature = signer.sign(message)
+                // same message, same signature
+                assertArrayEquals(signature, signer.sign(message))
+                assertTrue(keyPair.public.verify(signature, message, hashAlgo))
+                assertFalse(keyPair.public.verify(signature, Random.nextBytes(16), hashAlgo))
+            }
+        }
+    }
+
+    @Test
+    fun `Test batch verification`() {
+        val checks = supportedAlgos.flatMap { algo ->
+            val keyPair = Crypto.generateKeyPair(algo.curve)
+            val otherKeyPair = Crypto.generateKeyPair(algo.curve)
+            val signer = Crypto.getSigner(keyPair.private, HashAlgorithm.SHA3_256)
+            List(loopCount) {
+                val message = Random.nextBytes(20)
+                val signature = signer.sign(message)
+                // every third check uses the wrong key
+                val publicKey = if (it % 3 == 0) otherKeyPair.public else keyPair.public
+                SignatureCheck(publicKey, message, signature, HashAlgorithm.SHA3_256)
+            }
+        }
+        val unsupported = SignatureCheck(checks[1].publicKey, checks[1].message, checks[1].signature, HashAlgorithm.KMAC128)
+
+        val result = Crypto.verifyBatch(checks + unsupported)
+
+        checks.forEachIndexed { i, check ->
+            assertEquals(check.publicKey.verify(check.signature, check.message, check.hashAlgo), result[i])
+        }
+        assertFalse(result[checks.size])
+        assertEquals(checks.size - checks.indices.count { it % loopCount % 3 == 0 }, result.cardinality())
+    }
+
     @Test
     fun `Test signer with invalid algo keys`() {
         val keyPair = Crypto.generateKeyPair(SignatureAlgorithm.ECDSA_P256)
@@ -0,0 +1,61 @@
+package org.onflow.flow.sdk.crypto
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.onflow.flow.sdk.*
+import java.math.BigDecimal
+
+internal class UserSignatureValidatorTest {
+    private val message = "ananas".toByteArray()
+    private val first = Crypto.generateKeyPair(SignatureAlgorithm.ECDSA_P256)
+    private val second = Crypto.generateKeyPair(SignatureAlgorithm.ECDSA_SECP256k1)
+    private val validator = UserSignatureValidator()
+
+    private fun key(index: Int, keyPair: KeyPair, weight: Int, revoked: Boolean = false) = FlowAccountKey(
+        id = index,
+        publicKey = FlowPublicKey(keyPair.public.hex),
+        signAlgo = keyPair.public.algo,
+        hashAlgo = HashAlgorithm.SHA3_256,
+        weight = weight,
+        revoked = revoked
+    )
+
+    @Suppress("DEPRECATION")
+    private fun account(vararg keys: FlowAccountKey) = FlowAccount(
+        address = FlowAddress("01"),
+        balance = BigDecimal.ZERO,
+        code = FlowCode(ByteArray(0)),
+        keys = keys.toList(),
+        contracts = emptyMap()
+    )
+
+    private fun sign(keyIndex: Int, keyPair: KeyPair) =
+        UserSignatureValidator.KeySignature(keyIndex, Crypto.getSigner(keyPair.private, HashAlgorithm.SHA3_256).sign(message))
+
+    @Test
+    fun `Test signatures must reach full weight`() {
+        val account = account(key(0, first, 500), key(1, second, 500))
+
+        assertTrue(validator.validateAll(account, message, listOf(sign(0, first), sign(1, second))))
+        assertFalse(validator.validateAll(account, message, listOf(sign(0, first))))
+        assertFalse(validator.validateAll(account, message, emptyList()))
+    }
+
+    @Test
+    fun `Test invalid, revoked, missing or repeated keys fail the set`() {
+        val account = account(key(0, first, 1000), key(1, second, 1000, revoked = true))
+
+        assertFalse(validator.validateAll(account, message, listOf(sign(0, second))))
+        assertFalse(validator.validateAll(account, message, listOf(sign(0, first), sign(1, second))))
+        assertFalse(validator.validateAll(account, message, listOf(sign(0, first), sign(2, first))))
+        assertFalse(validator.validateAll(account(key(0, first, 500)), message, listOf(sign(0, first), sign(0, first))))
+    }
+
+    @Test
+    fun `Test any key that is not revoked can validate a signature`() {
+        val account = account(key(0, first, 1), key(1, second, 1, revoked = true))
+
+        assertTrue(validator.validateAny(account, message, sign(0, first).signature))
+        assertFalse(validator.validateAny(account, message, sign(1, second).signature))
+    }
+}
@@ -19,9 +19,11 @@ import org.onflow.protobuf.entities.AccountOuterClass
 import org.onflow.protobuf.entities.NodeVersionInfoOuterClass
 import org.onflow.protobuf.entities.TransactionOuterClass
 import java.time.LocalDateTime
+import java.util.concurrent.Executor
 import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicInteger
 
 class AsyncFlowAccessApiImplTest {
     companion object {
@@ -254,6 +256,28 @@ class AsyncFlowAccessApiImplTest {
         assert(result is FlowAccessApi.AccessApiCallResponse.Success)
     }
 
+    @Test
+    fun `test cancelling a call cancels the underlying grpc future`() {
+        val pingFuture = SettableFuture.create<Access.PingResponse>()
+        `when`(api.ping(any())).thenReturn(pingFuture)
+
+        asyncFlowAccessApi.ping().cancel(true)
+
+        assert(pingFuture.isCancelled)
+    }
+
+    @Test
+    fun `test responses are decoded on the decode executor`() {
+        val decodeTasks = AtomicInteger()
+        val decodingApi = AsyncFlowAccessApiImpl(api, Executor { decodeTasks.incrementAndGet(); it.run() })
+        `when`(api.getLatestBlockHeader(any())).thenReturn(setupFutureMock(MockResponseFactory.blockHeaderResponse(mockBlockHeader)))
+
+        val result = decodingApi.getLatestBlockHeader(true).get()
+
+        assertSuccess(result, mockBlockHeader)
+        assertEquals(1, decodeTasks.get())
+    }
+
     @Test
     fun `test getAccountKeyAtLatestBlock success`() {
         `when`(api.getAccountKeyAtLatestBlock(any())).thenReturn(setupFutureMock(MockResponseFactory.accountKeyResponse(mockAccountKey)))
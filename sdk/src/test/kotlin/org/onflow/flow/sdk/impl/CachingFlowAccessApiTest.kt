@@ -0,0 +1,159 @@
+package org.onflow.flow.sdk.impl
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.*
+import org.onflow.flow.sdk.*
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.concurrent.CompletableFuture
+
+class CachingFlowAccessApiTest {
+    private fun header(height: Long) = FlowBlockHeader(
+        id = FlowId.of(byteArrayOf(height.toByte())),
+        parentId = FlowId.of(byteArrayOf((height - 1).toByte())),
+        height = height,
+        timestamp = LocalDateTime.now(),
+        payloadHash = ByteArray(32),
+        view = height,
+        parentVoterSigData = ByteArray(48),
+        proposerId = FlowId("01"),
+        proposerSigData = ByteArray(48),
+        chainId = FlowChainId.TESTNET,
+        parentVoterIndices = ByteArray(8),
+        lastViewTc = FlowTimeoutCertificate(0, emptyList(), FlowQuorumCertificate(0, FlowId("01"), ByteArray(0), ByteArray(0)), ByteArray(0), ByteArray(0)),
+        parentView = height - 1
+    )
+
+    private fun sealedAt(api: FlowAccessApi, height: Long) {
+        `when`(api.getLatestBlockHeader(true)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(header(height)))
+    }
+
+    @Test
+    fun `Test sealed header fetched by height is served from the cache by height and by ID`() {
+        val api = mock(FlowAccessApi::class.java)
+        sealedAt(api, 100)
+        val cached = header(10)
+        `when`(api.getBlockHeaderByHeight(10)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(cached))
+        val caching = CachingFlowAccessApi(api)
+
+        caching.getBlockHeaderByHeight(10)
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(cached), caching.getBlockHeaderByHeight(10))
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(cached), caching.getBlockHeaderById(cached.id))
+        verify(api, times(1)).getBlockHeaderByHeight(10)
+        verify(api, never()).getBlockHeaderById(cached.id)
+    }
+
+    @Test
+    fun `Test withDeadline serves lookups from the same cache`() {
+        val api = mock(FlowAccessApi::class.java)
+        val scoped = mock(FlowAccessApi::class.java)
+        `when`(api.withDeadline(any())).thenReturn(scoped)
+        sealedAt(scoped, 100)
+        val cached = header(10)
+        `when`(scoped.getBlockHeaderByHeight(10)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(cached))
+        val caching = CachingFlowAccessApi(api)
+
+        caching.withDeadline(Duration.ofSeconds(2)).getBlockHeaderByHeight(10)
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(cached), caching.withDeadline(Duration.ofSeconds(2)).getBlockHeaderByHeight(10))
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(cached), caching.getBlockHeaderById(cached.id))
+        verify(scoped, times(1)).getBlockHeaderByHeight(10)
+        verify(api, never()).getBlockHeaderById(cached.id)
+    }
+
+    @Test
+    fun `Test headers above the sealed height are not cached`() {
+        val api = mock(FlowAccessApi::class.java)
+        sealedAt(api, 5)
+        `when`(api.getBlockHeaderByHeight(10)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(header(10)))
+        val caching = CachingFlowAccessApi(api)
+
+        caching.getBlockHeaderByHeight(10)
+        caching.getBlockHeaderByHeight(10)
+
+        verify(api, times(2)).getBlockHeaderByHeight(10)
+    }
+
+    @Test
+    fun `Test unsealed latest block is never cached`() {
+        val api = mock(FlowAccessApi::class.java)
+        val latest = header(10)
+        `when`(api.getLatestBlockHeader(false)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(latest))
+        `when`(api.getBlockHeaderById(latest.id)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(latest))
+        sealedAt(api, 5)
+        val caching = CachingFlowAccessApi(api)
+
+        caching.getLatestBlockHeader(false)
+        caching.getBlockHeaderById(latest.id)
+
+        verify(api).getBlockHeaderById(latest.id)
+    }
+
+    @Test
+    fun `Test least recently used entries are evicted beyond the size limit`() {
+        val api = mock(FlowAccessApi::class.java)
+        sealedAt(api, 100)
+        for (height in 1L..3L) {
+            `when`(api.getBlockHeaderByHeight(height)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(header(height)))
+        }
+        val caching = CachingFlowAccessApi(api, 1000)
+
+        caching.getBlockHeaderByHeight(1)
+        caching.getBlockHeaderByHeight(2)
+        caching.getBlockHeaderByHeight(1)
+        caching.getBlockHeaderByHeight(3)
+        caching.getBlockHeaderByHeight(1)
+        caching.getBlockHeaderByHeight(2)
+
+        assertTrue(caching.cachedBytes <= 1000)
+        verify(api, times(1)).getBlockHeaderByHeight(1)
+        verify(api, times(2)).getBlockHeaderByHeight(2)
+    }
+
+    @Test
+    fun `Test async cache hit completes without a call`() {
+        val api = mock(AsyncFlowAccessApi::class.java)
+        val cached = header(10)
+        `when`(api.getLatestBlockHeader(true)).thenReturn(CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Success(header(100))))
+        `when`(api.getBlockHeaderById(cached.id)).thenReturn(CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Success(cached)))
+        val caching = CachingAsyncFlowAccessApi(api)
+
+        caching.getBlockHeaderById(cached.id).get()
+        val hit = caching.getBlockHeaderByHeight(10)
+
+        assertTrue(hit.isDone)
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(cached), hit.get())
+        verify(api, never()).getBlockHeaderByHeight(10)
+    }
+
+    @Test
+    fun `Test reads at the tip refresh the sealed height at most once per interval`() {
+        val api = mock(FlowAccessApi::class.java)
+        sealedAt(api, 5)
+        for (height in 10L..14L) {
+            `when`(api.getBlockHeaderByHeight(height)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(header(height)))
+        }
+        val caching = CachingFlowAccessApi(api, CachingFlowAccessApi.DEFAULT_MAX_BYTES, Duration.ofHours(1))
+
+        for (height in 10L..14L) {
+            caching.getBlockHeaderByHeight(height)
+        }
+
+        verify(api, times(1)).getLatestBlockHeader(true)
+    }
+
+    @Test
+    fun `Test cancelling an async lookup cancels the underlying call`() {
+        val api = mock(AsyncFlowAccessApi::class.java)
+        val pending = CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowBlockHeader?>>()
+        `when`(api.getBlockHeaderByHeight(10)).thenReturn(pending)
+        val caching = CachingAsyncFlowAccessApi(api)
+
+        caching.getBlockHeaderByHeight(10).cancel(true)
+
+        assertTrue(pending.isCancelled)
+    }
+}
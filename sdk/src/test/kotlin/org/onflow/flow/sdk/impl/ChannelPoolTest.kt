@@ -0,0 +1,95 @@
+package org.onflow.flow.sdk.impl
+
+import io.grpc.*
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.*
+import org.onflow.protobuf.access.AccessAPIGrpc
+import org.onflow.protobuf.executiondata.ExecutionDataAPIGrpc
+
+class ChannelPoolTest {
+    private class RecordingCall<ReqT, RespT> : ClientCall<ReqT, RespT>() {
+        var listener: Listener<RespT>? = null
+
+        override fun start(responseListener: Listener<RespT>, headers: Metadata) {
+            listener = responseListener
+        }
+
+        override fun request(numMessages: Int) {}
+
+        override fun cancel(message: String?, cause: Throwable?) {}
+
+        override fun halfClose() {}
+
+        override fun sendMessage(message: ReqT) {}
+
+        fun close() = listener!!.onClose(Status.OK, Metadata())
+    }
+
+    private val channels = mutableListOf<ManagedChannel>()
+    private val calls = mutableListOf<RecordingCall<*, *>>()
+
+    private fun newChannel(): ManagedChannel {
+        val channel = mock(ManagedChannel::class.java)
+        `when`(channel.newCall(any<MethodDescriptor<Any, Any>>(), any())).thenAnswer { RecordingCall<Any, Any>().also { calls.add(it) } }
+        channels.add(channel)
+        return channel
+    }
+
+    private fun <ReqT, RespT> start(pool: ChannelPool, method: MethodDescriptor<ReqT, RespT>): ClientCall<ReqT, RespT> =
+        pool.newCall(method, CallOptions.DEFAULT).apply { start(object : ClientCall.Listener<RespT>() {}, Metadata()) }
+
+    @Test
+    fun `Test unary calls go to the least loaded channel`() {
+        val pool = ChannelPool(2, false) { newChannel() }
+
+        start(pool, AccessAPIGrpc.getPingMethod())
+        start(pool, AccessAPIGrpc.getPingMethod())
+
+        assertEquals(listOf(1, 1), pool.inFlightCalls)
+
+        calls[0].close()
+        start(pool, AccessAPIGrpc.getPingMethod())
+
+        verify(channels[0], times(2)).newCall(any<MethodDescriptor<Any, Any>>(), any())
+        assertEquals(listOf(1, 1), pool.inFlightCalls)
+    }
+
+    @Test
+    fun `Test streaming call gets a dedicated channel that is shut down when the stream closes`() {
+        val pool = ChannelPool(1, true) { newChannel() }
+
+        start(pool, ExecutionDataAPIGrpc.getSubscribeEventsFromStartHeightMethod())
+
+        assertEquals(2, channels.size)
+        assertEquals(listOf(0), pool.inFlightCalls)
+
+        calls[0].close()
+
+        verify(channels[1]).shutdown()
+        verify(channels[0], never()).shutdown()
+    }
+
+    @Test
+    fun `Test calls that are never started hold no slot or channel`() {
+        val pool = ChannelPool(1, true) { newChannel() }
+
+        pool.newCall(AccessAPIGrpc.getPingMethod(), CallOptions.DEFAULT)
+        pool.newCall(ExecutionDataAPIGrpc.getSubscribeEventsFromStartHeightMethod(), CallOptions.DEFAULT).cancel("not needed", null)
+
+        assertEquals(listOf(0), pool.inFlightCalls)
+        assertEquals(1, channels.size)
+        assertTrue(calls.isEmpty())
+    }
+
+    @Test
+    fun `Test shutdown closes every channel`() {
+        val pool = ChannelPool(3, false) { newChannel() }
+
+        pool.shutdownNow()
+
+        assertTrue(pool.isShutdown)
+        channels.forEach { verify(it).shutdownNow() }
+    }
+}
@@ -0,0 +1,99 @@
+package org.onflow.flow.sdk.impl
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.*
+import org.onflow.flow.sdk.*
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+
+class CoalescingFlowAccessApiTest {
+    private val address = FlowAddress("01")
+
+    @Test
+    fun `Test identical in-flight async calls share one request`() {
+        val api = mock(AsyncFlowAccessApi::class.java)
+        val pending = CompletableFuture<FlowAccessApi.AccessApiCallResponse<FlowAccount>>()
+        `when`(api.getAccountAtLatestBlock(address)).thenReturn(pending)
+        val coalescing = CoalescingAsyncFlowAccessApi(api)
+
+        val first = coalescing.getAccountAtLatestBlock(address)
+        val second = coalescing.getAccountAtLatestBlock(address)
+        val account = mock(FlowAccount::class.java)
+        pending.complete(FlowAccessApi.AccessApiCallResponse.Success(account))
+
+        assertNotSame(first, second)
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(account), first.get())
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(account), second.get())
+        verify(api, times(1)).getAccountAtLatestBlock(address)
+    }
+
+    @Test
+    fun `Test calls with different arguments are not merged`() {
+        val api = mock(AsyncFlowAccessApi::class.java)
+        `when`(api.getLatestBlockHeader(true)).thenReturn(CompletableFuture())
+        `when`(api.getLatestBlockHeader(false)).thenReturn(CompletableFuture())
+        val coalescing = CoalescingAsyncFlowAccessApi(api)
+
+        coalescing.getLatestBlockHeader(true)
+        coalescing.getLatestBlockHeader(false)
+
+        verify(api).getLatestBlockHeader(true)
+        verify(api).getLatestBlockHeader(false)
+    }
+
+    @Test
+    fun `Test cancelling one caller keeps the shared call running`() {
+        val api = mock(AsyncFlowAccessApi::class.java)
+        val pending = CompletableFuture<FlowAccessApi.AccessApiCallResponse<Unit>>()
+        `when`(api.ping()).thenReturn(pending)
+        val coalescing = CoalescingAsyncFlowAccessApi(api)
+
+        coalescing.ping().cancel(true)
+        val other = coalescing.ping()
+        pending.complete(FlowAccessApi.AccessApiCallResponse.Success(Unit))
+
+        assertFalse(pending.isCancelled)
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), other.get())
+    }
+
+    @Test
+    fun `Test successful response is shared within the sharing window`() {
+        val api = mock(FlowAccessApi::class.java)
+        `when`(api.ping()).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(Unit))
+        val coalescing = CoalescingFlowAccessApi(api, Duration.ofMinutes(1))
+
+        coalescing.ping()
+        coalescing.ping()
+
+        verify(api, times(1)).ping()
+        coalescing.close()
+    }
+
+    @Test
+    fun `Test error response is not shared after it completed`() {
+        val api = mock(FlowAccessApi::class.java)
+        `when`(api.ping()).thenReturn(FlowAccessApi.AccessApiCallResponse.Error("Failed to ping"))
+        val coalescing = CoalescingFlowAccessApi(api, Duration.ofMinutes(1))
+
+        coalescing.ping()
+        coalescing.ping()
+
+        verify(api, times(2)).ping()
+        coalescing.close()
+    }
+
+    @Test
+    fun `Test transactions are never coalesced`() {
+        val api = mock(FlowAccessApi::class.java)
+        val transaction = mock(FlowTransaction::class.java)
+        `when`(api.sendTransaction(transaction)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(FlowId("01")))
+        val coalescing = CoalescingFlowAccessApi(api, Duration.ofMinutes(1))
+
+        coalescing.sendTransaction(transaction)
+        coalescing.sendTransaction(transaction)
+
+        verify(api, times(2)).sendTransaction(transaction)
+        coalescing.close()
+    }
+}
@@ -0,0 +1,87 @@
+package org.onflow.flow.sdk.impl
+
+import io.grpc.stub.ClientCallStreamObserver
+import io.grpc.stub.ClientResponseObserver
+import kotlinx.coroutines.*
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.*
+import org.onflow.flow.sdk.*
+import org.onflow.protobuf.executiondata.ExecutionDataAPIGrpc
+import org.onflow.protobuf.executiondata.Executiondata
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+
+class CoroutineFlowAccessApiImplTest {
+    private lateinit var asyncApi: AsyncFlowAccessApi
+    private lateinit var executionDataApi: ExecutionDataAPIGrpc.ExecutionDataAPIStub
+    private lateinit var coroutineApi: CoroutineFlowAccessApiImpl
+
+    @BeforeEach
+    fun setUp() {
+        asyncApi = mock(AsyncFlowAccessApi::class.java)
+        executionDataApi = mock(ExecutionDataAPIGrpc.ExecutionDataAPIStub::class.java)
+        coroutineApi = CoroutineFlowAccessApiImpl(asyncApi, executionDataApi)
+    }
+
+    @Test
+    fun `Test ping`() = runTest {
+        `when`(asyncApi.ping()).thenReturn(CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Success(Unit)))
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), coroutineApi.ping())
+    }
+
+    @Test
+    fun `Test missing block is reported as error`() = runTest {
+        val blockId = FlowId("01")
+        `when`(asyncApi.getBlockById(blockId, false)).thenReturn(CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Success(null)))
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Error("Block not found"), coroutineApi.getBlockById(blockId, false))
+    }
+
+    @Test
+    fun `Test cancelling the caller cancels the pending call`() = runTest {
+        val pending = CompletableFuture<FlowAccessApi.AccessApiCallResponse<Unit>>()
+        `when`(asyncApi.ping()).thenReturn(pending)
+
+        val job = launch(start = CoroutineStart.UNDISPATCHED) { coroutineApi.ping() }
+        job.cancelAndJoin()
+
+        assertTrue(pending.isCancelled)
+    }
+
+    @Test
+    fun `Test subscribeEventsByBlockHeight emits responses until completed`() = runTest {
+        val requestStream = mock(ClientCallStreamObserver::class.java)
+        doAnswer {
+            @Suppress("UNCHECKED_CAST")
+            val observer = it.arguments[1] as ClientResponseObserver<Executiondata.SubscribeEventsFromStartHeightRequest, Executiondata.SubscribeEventsResponse>
+            @Suppress("UNCHECKED_CAST")
+            observer.beforeStart(requestStream as ClientCallStreamObserver<Executiondata.SubscribeEventsFromStartHeightRequest>)
+            observer.onNext(Executiondata.SubscribeEventsResponse.getDefaultInstance())
+            observer.onNext(Executiondata.SubscribeEventsResponse.getDefaultInstance())
+            observer.onCompleted()
+            null
+        }.`when`(executionDataApi).subscribeEventsFromStartHeight(any(), any())
+
+        val events = coroutineApi.subscribeEventsByBlockHeight(10L).toList()
+
+        assertEquals(listOf(emptyList<FlowEvent>(), emptyList()), events)
+    }
+
+    @Test
+    fun `Test withDeadline scopes unary calls but not subscriptions`() = runTest {
+        val scoped = mock(AsyncFlowAccessApi::class.java)
+        `when`(asyncApi.withDeadline(Duration.ofSeconds(2))).thenReturn(scoped)
+        `when`(scoped.ping()).thenReturn(CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Success(Unit)))
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), coroutineApi.withDeadline(Duration.ofSeconds(2)).ping())
+        verify(asyncApi, never()).ping()
+        verify(executionDataApi, never()).withDeadlineAfter(anyLong(), any())
+    }
+}
@@ -0,0 +1,58 @@
+package org.onflow.flow.sdk.impl
+
+import io.grpc.*
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.*
+import org.onflow.flow.sdk.AccessApiDeadlines
+import org.onflow.flow.sdk.AccessApiMethod
+import org.onflow.protobuf.access.AccessAPIGrpc
+import org.onflow.protobuf.executiondata.ExecutionDataAPIGrpc
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class DeadlineInterceptorTest {
+    private val next = mock(Channel::class.java)
+
+    private fun intercept(interceptor: DeadlineInterceptor, method: MethodDescriptor<*, *>, callOptions: CallOptions = CallOptions.DEFAULT): CallOptions {
+        interceptor.interceptCall(method, callOptions, next)
+        val captor = ArgumentCaptor.forClass(CallOptions::class.java)
+        verify(next).newCall(any<MethodDescriptor<Any, Any>>(), captor.capture())
+        return captor.value
+    }
+
+    @Test
+    fun `Test default deadline is applied to unary calls`() {
+        val interceptor = DeadlineInterceptor(AccessApiDeadlines(Duration.ofSeconds(5)))
+
+        val deadline = intercept(interceptor, AccessAPIGrpc.getPingMethod()).deadline!!
+
+        assertTrue(deadline.timeRemaining(TimeUnit.MILLISECONDS) in 4_000..5_000)
+    }
+
+    @Test
+    fun `Test method deadline overrides the default`() {
+        val interceptor = DeadlineInterceptor(AccessApiDeadlines(Duration.ofSeconds(5), mapOf(AccessApiMethod.GET_BLOCK_BY_HEIGHT to Duration.ofSeconds(60))))
+
+        val deadline = intercept(interceptor, AccessAPIGrpc.getGetBlockByHeightMethod()).deadline!!
+
+        assertTrue(deadline.timeRemaining(TimeUnit.SECONDS) > 50)
+    }
+
+    @Test
+    fun `Test subscriptions only get an explicit deadline`() {
+        val interceptor = DeadlineInterceptor(AccessApiDeadlines(Duration.ofSeconds(5)))
+
+        assertNull(intercept(interceptor, ExecutionDataAPIGrpc.getSubscribeEventsFromStartHeightMethod()).deadline)
+    }
+
+    @Test
+    fun `Test existing call deadline is kept`() {
+        val interceptor = DeadlineInterceptor(AccessApiDeadlines(Duration.ofSeconds(5)))
+        val callOptions = CallOptions.DEFAULT.withDeadlineAfter(1, TimeUnit.HOURS)
+
+        assertSame(callOptions, intercept(interceptor, AccessAPIGrpc.getPingMethod(), callOptions))
+    }
+}
@@ -0,0 +1,42 @@
+package org.onflow.flow.sdk.impl
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import java.security.MessageDigest
+import java.security.Security
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+class DigestsTest {
+    @Test
+    fun `Test digests match the BouncyCastle provider`() {
+        Digests.registerProvider()
+        val input = Random.nextBytes(1000)
+
+        assertArrayEquals(MessageDigest.getInstance("SHA-256", BouncyCastleProvider.PROVIDER_NAME).digest(input), Digests.sha2256(input))
+        assertArrayEquals(MessageDigest.getInstance("SHA3-256", BouncyCastleProvider.PROVIDER_NAME).digest(input), Digests.sha3256(input))
+        assertArrayEquals(MessageDigest.getInstance("KECCAK-256", BouncyCastleProvider.PROVIDER_NAME).digest(input), Digests.keccak256(input))
+    }
+
+    @Test
+    fun `Test provider is registered once`() {
+        Digests.registerProvider()
+        Digests.registerProvider()
+
+        assertEquals(1, Security.getProviders().count { it.name == BouncyCastleProvider.PROVIDER_NAME })
+    }
+
+    @Test
+    fun `Test concurrent hashing gives the same results`() {
+        val inputs = List(64) { Random.nextBytes(it * 10) }
+        val expected = inputs.map { Digests.sha3256(it) }
+        val executor = Executors.newFixedThreadPool(8)
+
+        val results = inputs.map { input -> executor.submit<ByteArray> { Digests.sha3256(input) } }
+
+        results.forEachIndexed { i, result -> assertArrayEquals(expected[i], result.get(5, TimeUnit.SECONDS)) }
+        executor.shutdown()
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Assertions.*
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyLong
 import org.mockito.Mockito.*
 import org.onflow.flow.sdk.impl.AsyncFlowAccessApiImplTest.Companion.HEIGHT
 import org.onflow.flow.sdk.impl.AsyncFlowAccessApiImplTest.Companion.blockId
@@ -27,7 +28,9 @@ import org.onflow.protobuf.executiondata.ExecutionDataAPIGrpc
 import org.onflow.protobuf.executiondata.Executiondata
 import java.io.ByteArrayOutputStream
 import java.io.PrintStream
+import java.time.Duration
 import java.math.BigDecimal
+import java.util.concurrent.TimeUnit
 
 @ExperimentalCoroutinesApi
 class FlowAccessApiImplTest {
@@ -79,6 +82,19 @@ class FlowAccessApiImplTest {
         verify(mockApi).ping(Access.PingRequest.newBuilder().build())
     }
 
+    @Test
+    fun `Test withDeadline scopes the deadline to the returned client`() {
+        val scopedApi = mock(AccessAPIGrpc.AccessAPIBlockingStub::class.java)
+        `when`(mockApi.withDeadlineAfter(2_000_000_000L, TimeUnit.NANOSECONDS)).thenReturn(scopedApi)
+
+        flowAccessApiImpl.withDeadline(Duration.ofSeconds(2)).ping()
+
+        verify(scopedApi).ping(Access.PingRequest.newBuilder().build())
+        verify(mockApi, never()).ping(any())
+        // subscriptions keep running past the deadline
+        verify(mockExecutionDataApi, never()).withDeadlineAfter(anyLong(), any())
+    }
+
     @Test
     fun `Test getAccountKeyAtLatestBlock`() {
         val flowAddress = FlowAddress("01")
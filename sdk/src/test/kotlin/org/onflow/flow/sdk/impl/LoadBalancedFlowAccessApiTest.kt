@@ -0,0 +1,253 @@
+package org.onflow.flow.sdk.impl
+
+import io.grpc.Status
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.*
+import org.mockito.invocation.InvocationOnMock
+import org.onflow.flow.sdk.*
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class LoadBalancedFlowAccessApiTest {
+    private lateinit var first: FlowAccessApi
+    private lateinit var second: FlowAccessApi
+    private val options = LoadBalancingOptions(maxSealedHeightLag = 10, healthCheckInterval = Duration.ZERO)
+
+    @BeforeEach
+    fun setUp() {
+        first = mock(FlowAccessApi::class.java)
+        second = mock(FlowAccessApi::class.java)
+        `when`(first.ping()).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(Unit))
+        `when`(second.ping()).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(Unit))
+    }
+
+    @Test
+    fun `Test calls skip node lagging behind sealed height`() {
+        val api = LoadBalancedFlowAccessApi(listOf(first, second), options)
+        api.nodeStats[0].observeSealedHeight(100)
+        api.nodeStats[1].observeSealedHeight(50)
+
+        repeat(20) { api.ping() }
+
+        verify(first, times(20)).ping()
+        verify(second, never()).ping()
+    }
+
+    @Test
+    fun `Test lagging node is used only when no other node is eligible`() {
+        val unavailable = FlowAccessApi.AccessApiCallResponse.Error("Failed to ping", Status.UNAVAILABLE.asRuntimeException())
+        val balancer = AccessNodeBalancer(2, options)
+        balancer.stats[0].observeSealedHeight(100)
+        balancer.stats[1].observeSealedHeight(50)
+        repeat(5) { balancer.end(0, balancer.begin(0), unavailable) }
+
+        // a failing node that is up to date still wins over one trailing by more than maxSealedHeightLag
+        assertTrue(balancer.stats[0].errorRate > 0.5)
+        repeat(20) { assertEquals(0, balancer.select()) }
+
+        assertEquals(1, balancer.select(exclude = 0))
+    }
+
+    @Test
+    fun `Test latest sealed header updates node sealed height`() {
+        val header = mock(FlowBlockHeader::class.java)
+        `when`(header.height).thenReturn(42L)
+        `when`(first.getLatestBlockHeader(true)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(header))
+        val api = LoadBalancedFlowAccessApi(listOf(first), options)
+
+        api.getLatestBlockHeader(true)
+
+        assertEquals(42L, api.nodeStats[0].sealedHeight)
+        assertEquals(0, api.nodeStats[0].pendingCalls)
+    }
+
+    @Test
+    fun `Test unavailable node is penalised`() {
+        val error = FlowAccessApi.AccessApiCallResponse.Error("Failed to ping", Status.UNAVAILABLE.asRuntimeException())
+        `when`(first.ping()).thenReturn(error)
+        val api = LoadBalancedFlowAccessApi(listOf(first), options)
+
+        assertEquals(error, api.ping())
+
+        assertTrue(api.nodeStats[0].errorRate > 0.0)
+    }
+
+    @Test
+    fun `Test request errors are not counted against node`() {
+        val error = FlowAccessApi.AccessApiCallResponse.Error("Failed to ping", Status.NOT_FOUND.asRuntimeException())
+        `when`(first.ping()).thenReturn(error)
+        val api = LoadBalancedFlowAccessApi(listOf(first), options)
+
+        api.ping()
+
+        assertEquals(0.0, api.nodeStats[0].errorRate)
+    }
+
+    @Test
+    fun `Test async calls track completion`() {
+        val node = mock(AsyncFlowAccessApi::class.java)
+        val future = CompletableFuture<FlowAccessApi.AccessApiCallResponse<Unit>>()
+        `when`(node.ping()).thenReturn(future)
+        val api = LoadBalancedAsyncFlowAccessApi(listOf(node), options)
+
+        val result = api.ping()
+        assertEquals(1, api.nodeStats[0].pendingCalls)
+
+        future.complete(FlowAccessApi.AccessApiCallResponse.Success(Unit))
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), result.get())
+        assertEquals(0, api.nodeStats[0].pendingCalls)
+        assertTrue(api.nodeStats[0].latencyNanos > 0.0)
+    }
+
+    @Test
+    fun `Test slow async call is hedged to another node and loser is cancelled`() {
+        val slow = CompletableFuture<FlowAccessApi.AccessApiCallResponse<Unit>>()
+        val calls = AtomicInteger()
+        val answer = { _: InvocationOnMock ->
+            if (calls.getAndIncrement() == 0) slow else CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Success(Unit))
+        }
+        val firstNode = mock(AsyncFlowAccessApi::class.java)
+        val secondNode = mock(AsyncFlowAccessApi::class.java)
+        `when`(firstNode.ping()).thenAnswer(answer)
+        `when`(secondNode.ping()).thenAnswer(answer)
+        val api = LoadBalancedAsyncFlowAccessApi(listOf(firstNode, secondNode), options, HedgingPolicy.fixedDelay(Duration.ofMillis(10)))
+
+        val result = api.ping().get(5, TimeUnit.SECONDS)
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), result)
+        assertTrue(slow.isCancelled)
+        assertEquals(1L, api.hedgesIssued)
+        assertEquals(1L, api.hedgesWon)
+        api.close()
+    }
+
+    @Test
+    fun `Test failed hedge waits for the original call`() {
+        val slow = CompletableFuture<FlowAccessApi.AccessApiCallResponse<Unit>>()
+        val calls = AtomicInteger()
+        val answer = { _: InvocationOnMock ->
+            if (calls.getAndIncrement() == 0) {
+                slow
+            } else {
+                CompletableFuture.completedFuture<FlowAccessApi.AccessApiCallResponse<Unit>>(FlowAccessApi.AccessApiCallResponse.Error("Failed to ping", Status.UNAVAILABLE.asRuntimeException()))
+            }
+        }
+        val firstNode = mock(AsyncFlowAccessApi::class.java)
+        val secondNode = mock(AsyncFlowAccessApi::class.java)
+        `when`(firstNode.ping()).thenAnswer(answer)
+        `when`(secondNode.ping()).thenAnswer(answer)
+        val api = LoadBalancedAsyncFlowAccessApi(listOf(firstNode, secondNode), options, HedgingPolicy.fixedDelay(Duration.ofMillis(10)))
+
+        val result = api.ping()
+        while (calls.get() < 2) {
+            Thread.sleep(5)
+        }
+        Thread.sleep(50)
+        assertFalse(result.isDone)
+        slow.complete(FlowAccessApi.AccessApiCallResponse.Success(Unit))
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), result.get(5, TimeUnit.SECONDS))
+        assertEquals(1L, api.hedgesIssued)
+        assertEquals(0L, api.hedgesWon)
+        api.close()
+    }
+
+    @Test
+    fun `Test hedged call fails once every leg failed`() {
+        val slow = CompletableFuture<FlowAccessApi.AccessApiCallResponse<Unit>>()
+        val calls = AtomicInteger()
+        val error = FlowAccessApi.AccessApiCallResponse.Error("Failed to ping", Status.UNAVAILABLE.asRuntimeException())
+        val answer = { _: InvocationOnMock ->
+            if (calls.getAndIncrement() == 0) slow else CompletableFuture.completedFuture<FlowAccessApi.AccessApiCallResponse<Unit>>(error)
+        }
+        val firstNode = mock(AsyncFlowAccessApi::class.java)
+        val secondNode = mock(AsyncFlowAccessApi::class.java)
+        `when`(firstNode.ping()).thenAnswer(answer)
+        `when`(secondNode.ping()).thenAnswer(answer)
+        val api = LoadBalancedAsyncFlowAccessApi(listOf(firstNode, secondNode), options, HedgingPolicy.fixedDelay(Duration.ofMillis(10)))
+
+        val result = api.ping()
+        while (calls.get() < 2) {
+            Thread.sleep(5)
+        }
+        slow.complete(error)
+
+        assertEquals(error, result.get(5, TimeUnit.SECONDS))
+        api.close()
+    }
+
+    @Test
+    fun `Test fast async call is not hedged`() {
+        val node = mock(AsyncFlowAccessApi::class.java)
+        `when`(node.ping()).thenReturn(CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Success(Unit)))
+        val api = LoadBalancedAsyncFlowAccessApi(listOf(node, node), options, HedgingPolicy.fixedDelay(Duration.ofSeconds(10)))
+
+        api.ping().get(5, TimeUnit.SECONDS)
+
+        assertEquals(0L, api.hedgesIssued)
+        verify(node, times(1)).ping()
+        api.close()
+    }
+
+    @Test
+    fun `Test single node is not hedged to itself`() {
+        val node = mock(AsyncFlowAccessApi::class.java)
+        val slow = CompletableFuture<FlowAccessApi.AccessApiCallResponse<Unit>>()
+        `when`(node.ping()).thenReturn(slow)
+        // health checks keep the scheduler alive even though there is no second node to hedge to
+        val api = LoadBalancedAsyncFlowAccessApi(listOf(node), options.copy(healthCheckInterval = Duration.ofHours(1)), HedgingPolicy.fixedDelay(Duration.ofMillis(10)))
+
+        val result = api.ping()
+        Thread.sleep(100)
+        slow.complete(FlowAccessApi.AccessApiCallResponse.Success(Unit))
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), result.get(5, TimeUnit.SECONDS))
+        assertEquals(0L, api.hedgesIssued)
+        verify(node, times(1)).ping()
+        api.close()
+    }
+
+    @Test
+    fun `Test hedging policy rejects non idempotent methods`() {
+        assertThrows(IllegalArgumentException::class.java) {
+            HedgingPolicy(methods = setOf(AccessApiMethod.SEND_TRANSACTION))
+        }
+    }
+
+    @Test
+    fun `Test withDeadline scopes the selected node`() {
+        val scoped = mock(FlowAccessApi::class.java)
+        `when`(first.withDeadline(any())).thenReturn(scoped)
+        `when`(scoped.ping()).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(Unit))
+        val api = LoadBalancedFlowAccessApi(listOf(first), options)
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), api.withDeadline(Duration.ofSeconds(2)).ping())
+
+        verify(scoped).ping()
+        verify(first, never()).ping()
+        assertEquals(0, api.nodeStats[0].pendingCalls)
+    }
+
+    @Test
+    fun `Test health checks put a deadline on every probe`() {
+        val scopedFirst = mock(FlowAccessApi::class.java)
+        val scopedSecond = mock(FlowAccessApi::class.java)
+        `when`(first.withDeadline(Duration.ofMillis(500))).thenReturn(scopedFirst)
+        `when`(second.withDeadline(Duration.ofMillis(500))).thenReturn(scopedSecond)
+        val api = LoadBalancedFlowAccessApi(
+            listOf(first, second),
+            options.copy(healthCheckInterval = Duration.ofHours(1), healthCheckTimeout = Duration.ofMillis(500))
+        )
+
+        verify(scopedFirst, timeout(5000)).getLatestBlockHeader(true)
+        verify(scopedSecond, timeout(5000)).getLatestBlockHeader(true)
+        verify(first, never()).getLatestBlockHeader(true)
+        api.close()
+    }
+}
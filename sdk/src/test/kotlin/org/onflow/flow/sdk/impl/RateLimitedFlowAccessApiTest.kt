@@ -0,0 +1,95 @@
+package org.onflow.flow.sdk.impl
+
+import io.grpc.Status
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.*
+import org.onflow.flow.sdk.*
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+
+class RateLimitedFlowAccessApiTest {
+    private val success = FlowAccessApi.AccessApiCallResponse.Success(Unit)
+
+    @Test
+    fun `Test throttled response lowers the method rate`() {
+        val api = mock(FlowAccessApi::class.java)
+        `when`(api.ping()).thenReturn(FlowAccessApi.AccessApiCallResponse.Error("Failed to ping", Status.RESOURCE_EXHAUSTED.asRuntimeException()))
+        val limited = RateLimitedFlowAccessApi(api, RateLimitOptions(defaultRatePerSecond = 100.0, recoveryPerSecond = 0.001))
+
+        limited.ping()
+
+        assertEquals(50.0, limited.currentRate(AccessApiMethod.PING)!!, 0.1)
+        assertEquals(100.0, limited.currentRate(AccessApiMethod.GET_LATEST_BLOCK_HEADER)!!, 0.1)
+    }
+
+    @Test
+    fun `Test calls beyond the burst are rejected when they cannot wait`() {
+        val api = mock(FlowAccessApi::class.java)
+        `when`(api.ping()).thenReturn(success)
+        val limited = RateLimitedFlowAccessApi(api, RateLimitOptions(defaultRatePerSecond = 1.0, burst = 1.0, maxWait = Duration.ZERO))
+
+        assertEquals(success, limited.ping())
+        val rejected = limited.ping()
+
+        assertTrue((rejected as FlowAccessApi.AccessApiCallResponse.Error).throwable is RateLimitExceededException)
+        // a local rejection has no gRPC status, so retrying and load balancing decorators leave it alone
+        assertNull(AccessApiErrors.statusOf(rejected))
+        verify(api, times(1)).ping()
+    }
+
+    @Test
+    fun `Test async calls beyond the burst wait for a token`() {
+        val api = mock(AsyncFlowAccessApi::class.java)
+        `when`(api.ping()).thenReturn(CompletableFuture.completedFuture(success))
+        val limited = RateLimitedAsyncFlowAccessApi(api, RateLimitOptions(defaultRatePerSecond = 20.0, burst = 1.0))
+
+        val first = limited.ping()
+        val second = limited.ping()
+
+        assertTrue(first.isDone)
+        assertFalse(second.isDone)
+        assertEquals(success, second.get(5, TimeUnit.SECONDS))
+        verify(api, times(2)).ping()
+        limited.close()
+    }
+
+    @Test
+    fun `Test cancelled queued call gives its token back`() {
+        val api = mock(AsyncFlowAccessApi::class.java)
+        `when`(api.ping()).thenReturn(CompletableFuture.completedFuture(success))
+        val limited = RateLimitedAsyncFlowAccessApi(api, RateLimitOptions(defaultRatePerSecond = 1.0, burst = 1.0, maxWait = Duration.ofMillis(1500)))
+
+        limited.ping()
+        assertTrue(limited.ping().cancel(true))
+        // without the returned token this call would have to wait about two seconds and be rejected
+        val third = limited.ping()
+
+        assertFalse(third.isDone)
+        assertEquals(success, third.get(5, TimeUnit.SECONDS))
+        verify(api, times(2)).ping()
+        limited.close()
+    }
+
+    @Test
+    fun `Test queued call that throws fails its future and gives its token back`() {
+        val api = mock(AsyncFlowAccessApi::class.java)
+        val failure = IllegalStateException("channel shut down")
+        `when`(api.ping())
+            .thenReturn(CompletableFuture.completedFuture(success))
+            .thenThrow(failure)
+            .thenReturn(CompletableFuture.completedFuture(success))
+        val limited = RateLimitedAsyncFlowAccessApi(api, RateLimitOptions(defaultRatePerSecond = 1.0, burst = 1.0, maxWait = Duration.ofMillis(1500)))
+
+        limited.ping()
+        val thrown = assertThrows(ExecutionException::class.java) { limited.ping().get(5, TimeUnit.SECONDS) }
+        // without the returned token this call would have to wait about two seconds and be rejected
+        val third = limited.ping()
+
+        assertSame(failure, thrown.cause)
+        assertEquals(success, third.get(5, TimeUnit.SECONDS))
+        limited.close()
+    }
+}
@@ -0,0 +1,205 @@
+package org.onflow.flow.sdk.impl
+
+import io.grpc.Status
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.*
+import org.onflow.flow.sdk.*
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+
+class RetryingFlowAccessApiTest {
+    private val unavailable = FlowAccessApi.AccessApiCallResponse.Error("Failed to ping", Status.UNAVAILABLE.asRuntimeException())
+    private val notFound = FlowAccessApi.AccessApiCallResponse.Error("Failed to ping", Status.NOT_FOUND.asRuntimeException())
+    private val options = RetryOptions(defaultPolicy = RetryPolicy(maxAttempts = 3, initialBackoff = Duration.ZERO, maxBackoff = Duration.ZERO))
+    private val transactionId = FlowId("01")
+
+    private lateinit var api: FlowAccessApi
+    private lateinit var transaction: FlowTransaction
+
+    @BeforeEach
+    fun setUp() {
+        api = mock(FlowAccessApi::class.java)
+        transaction = mock(FlowTransaction::class.java)
+        `when`(transaction.id).thenReturn(transactionId)
+    }
+
+    @Test
+    fun `Test unavailable read is retried until it succeeds`() {
+        `when`(api.ping()).thenReturn(unavailable, unavailable, FlowAccessApi.AccessApiCallResponse.Success(Unit))
+
+        val result = RetryingFlowAccessApi(api, options).ping()
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), result)
+        verify(api, times(3)).ping()
+    }
+
+    @Test
+    fun `Test retries stop after max attempts`() {
+        `when`(api.ping()).thenReturn(unavailable)
+
+        val result = RetryingFlowAccessApi(api, options).ping()
+
+        assertEquals(unavailable, result)
+        verify(api, times(3)).ping()
+    }
+
+    @Test
+    fun `Test non retryable error is returned immediately`() {
+        `when`(api.ping()).thenReturn(notFound)
+
+        val result = RetryingFlowAccessApi(api, options).ping()
+
+        assertEquals(notFound, result)
+        verify(api, times(1)).ping()
+    }
+
+    @Test
+    fun `Test per method policy overrides default`() {
+        `when`(api.ping()).thenReturn(unavailable)
+        val perMethod = options.copy(methodPolicies = mapOf(AccessApiMethod.PING to RetryPolicy.NO_RETRY))
+
+        RetryingFlowAccessApi(api, perMethod).ping()
+
+        verify(api, times(1)).ping()
+    }
+
+    @Test
+    fun `Test exhausted budget stops retries`() {
+        `when`(api.ping()).thenReturn(unavailable)
+        val retrying = RetryingFlowAccessApi(api, options.copy(budgetMaxTokens = 4.0))
+
+        retrying.ping()
+        retrying.ping()
+
+        // the first call spends two tokens, after that the budget is at its threshold and no longer retries
+        verify(api, times(3)).ping()
+    }
+
+    @Test
+    fun `Test client errors do not refill the budget`() {
+        `when`(api.ping()).thenReturn(unavailable, unavailable, notFound, notFound, notFound, unavailable)
+        val retrying = RetryingFlowAccessApi(api, options.copy(budgetMaxTokens = 4.0, budgetTokenRatio = 1.0))
+
+        repeat(5) { retrying.ping() }
+
+        // the budget is still at its threshold after the NOT_FOUND responses, so the last call is not retried
+        verify(api, times(6)).ping()
+    }
+
+    @Test
+    fun `Test transaction is not resent when node already knows it`() {
+        `when`(api.sendTransaction(transaction)).thenReturn(FlowAccessApi.AccessApiCallResponse.Error("Failed to send transaction", Status.UNAVAILABLE.asRuntimeException()))
+        `when`(api.getTransactionResultById(transactionId)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(mock(FlowTransactionResult::class.java)))
+
+        val result = RetryingFlowAccessApi(api, options).sendTransaction(transaction)
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(transactionId), result)
+        verify(api, times(1)).sendTransaction(transaction)
+    }
+
+    @Test
+    fun `Test transaction is resent when node does not know it`() {
+        `when`(api.sendTransaction(transaction)).thenReturn(
+            FlowAccessApi.AccessApiCallResponse.Error("Failed to send transaction", Status.UNAVAILABLE.asRuntimeException()),
+            FlowAccessApi.AccessApiCallResponse.Success(transactionId)
+        )
+        `when`(api.getTransactionResultById(transactionId)).thenReturn(notFound)
+
+        val result = RetryingFlowAccessApi(api, options).sendTransaction(transaction)
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(transactionId), result)
+        verify(api, times(2)).sendTransaction(transaction)
+    }
+
+    @Test
+    fun `Test transaction id mismatch is reported as error`() {
+        `when`(api.sendTransaction(transaction)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(FlowId("02")))
+
+        val result = RetryingFlowAccessApi(api, options).sendTransaction(transaction)
+
+        assertTrue(result is FlowAccessApi.AccessApiCallResponse.Error)
+        verify(api, times(1)).sendTransaction(transaction)
+    }
+
+    @Test
+    fun `Test async unavailable read is retried until it succeeds`() {
+        val asyncApi = mock(AsyncFlowAccessApi::class.java)
+        `when`(asyncApi.ping()).thenReturn(
+            CompletableFuture.completedFuture(unavailable),
+            CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Success(Unit))
+        )
+        val retrying = RetryingAsyncFlowAccessApi(asyncApi, options)
+
+        val result = retrying.ping().get(5, TimeUnit.SECONDS)
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), result)
+        verify(asyncApi, times(2)).ping()
+        retrying.close()
+    }
+
+    @Test
+    fun `Test async retry that throws fails the returned future`() {
+        val asyncApi = mock(AsyncFlowAccessApi::class.java)
+        val failure = IllegalStateException("channel shut down")
+        `when`(asyncApi.ping()).thenReturn(CompletableFuture.completedFuture(unavailable)).thenThrow(failure)
+        val retrying = RetryingAsyncFlowAccessApi(asyncApi, options)
+
+        val thrown = assertThrows(ExecutionException::class.java) { retrying.ping().get(5, TimeUnit.SECONDS) }
+
+        assertSame(failure, thrown.cause)
+        retrying.close()
+    }
+
+    @Test
+    fun `Test withDeadline checks whether the node knows the transaction before resending`() {
+        val scoped = mock(FlowAccessApi::class.java)
+        `when`(api.withDeadline(any())).thenReturn(scoped)
+        `when`(scoped.sendTransaction(transaction)).thenReturn(FlowAccessApi.AccessApiCallResponse.Error("Failed to send transaction", Status.UNAVAILABLE.asRuntimeException()))
+        `when`(scoped.getTransactionResultById(transactionId)).thenReturn(FlowAccessApi.AccessApiCallResponse.Success(mock(FlowTransactionResult::class.java)))
+
+        val result = RetryingFlowAccessApi(api, options).withDeadline(Duration.ofSeconds(2)).sendTransaction(transaction)
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(transactionId), result)
+        verify(scoped, times(1)).sendTransaction(transaction)
+        verify(api, never()).sendTransaction(transaction)
+    }
+
+    @Test
+    fun `Test async withDeadline checks whether the node knows the transaction before resending`() {
+        val asyncApi = mock(AsyncFlowAccessApi::class.java)
+        val scoped = mock(AsyncFlowAccessApi::class.java)
+        `when`(asyncApi.withDeadline(any())).thenReturn(scoped)
+        `when`(scoped.sendTransaction(transaction)).thenReturn(
+            CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Error("Failed to send transaction", Status.UNAVAILABLE.asRuntimeException()))
+        )
+        `when`(scoped.getTransactionResultById(transactionId)).thenReturn(
+            CompletableFuture.completedFuture(FlowAccessApi.AccessApiCallResponse.Success(mock(FlowTransactionResult::class.java)))
+        )
+        val retrying = RetryingAsyncFlowAccessApi(asyncApi, options)
+
+        val result = retrying.withDeadline(Duration.ofSeconds(2)).sendTransaction(transaction).get(5, TimeUnit.SECONDS)
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(transactionId), result)
+        verify(scoped, times(1)).sendTransaction(transaction)
+        verify(asyncApi, never()).sendTransaction(transaction)
+        retrying.close()
+    }
+
+    @Test
+    fun `Test withDeadline retries against the deadline scoped client`() {
+        val scoped = mock(FlowAccessApi::class.java)
+        `when`(api.withDeadline(any())).thenReturn(scoped)
+        `when`(scoped.ping()).thenReturn(unavailable, FlowAccessApi.AccessApiCallResponse.Success(Unit))
+
+        val result = RetryingFlowAccessApi(api, options).withDeadline(Duration.ofSeconds(2)).ping()
+
+        assertEquals(FlowAccessApi.AccessApiCallResponse.Success(Unit), result)
+        verify(scoped, times(2)).ping()
+        verify(api, never()).ping()
+    }
+}
@@ -0,0 +1,81 @@
+package org.onflow.flow.sdk.impl
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.onflow.flow.sdk.*
+import org.tdf.rlp.RLPCodec
+
+class TransactionRlpTest {
+    private val proposer = FlowAddress("f8d6e0586b0a20c7")
+    private val payer = FlowAddress("ee82856bf20e2aa6")
+
+    private fun transaction(
+        script: String = "transaction { execute { log(\"Hello, World!\") } }",
+        arguments: List<FlowArgument> = emptyList(),
+        gasLimit: Long = 42,
+        keyIndex: Int = 3,
+        sequenceNumber: Long = 42
+    ) = FlowTransaction(
+        script = FlowScript(script),
+        arguments = arguments,
+        referenceBlockId = FlowId.of(byteArrayOf(1, 2).copyOf(32)),
+        gasLimit = gasLimit,
+        proposalKey = FlowTransactionProposalKey(proposer, keyIndex, sequenceNumber),
+        payerAddress = payer,
+        authorizers = listOf(proposer)
+    )
+
+    private fun FlowTransaction.signed() = this
+        .addPayloadSignature(proposer, 3, FlowSignature(byteArrayOf(1)))
+        .addPayloadSignature(proposer, 2, FlowSignature(ByteArray(64) { it.toByte() }))
+        .addEnvelopeSignature(payer, 7, FlowSignature(byteArrayOf(0x7f)))
+
+    private fun assertCompatible(tx: FlowTransaction) {
+        assertArrayEquals(RLPCodec.encode(tx.payload), TransactionRlp.encodePayload(tx))
+        assertArrayEquals(RLPCodec.encode(tx.authorization), TransactionRlp.encodeAuthorizationEnvelope(tx))
+        assertArrayEquals(RLPCodec.encode(tx.payment), TransactionRlp.encodePaymentEnvelope(tx))
+        assertArrayEquals(RLPCodec.encode(tx.transaction), TransactionRlp.encodeTransaction(tx))
+    }
+
+    @Test
+    fun `Test encodings match RLPCodec`() {
+        assertCompatible(transaction())
+        assertCompatible(transaction().signed())
+        assertCompatible(transaction(script = "", gasLimit = 0, keyIndex = 0, sequenceNumber = 0))
+        assertCompatible(transaction(gasLimit = 0x7f, keyIndex = 0x80, sequenceNumber = Long.MAX_VALUE).signed())
+        assertCompatible(transaction(script = "x".repeat(70_000), arguments = List(300) { FlowArgument(ByteArray(it)) }).signed())
+    }
+
+    @Test
+    fun `Test transaction matches flow-go-sdk encoding`() {
+        // calculated with the flow-go-sdk, see TransactionDecodingTest
+        val expected = "f882f872b07472616e73616374696f6e207b2065786563757465207b206c6f67282248656c6c6f2c20576f726c64212229207d207dc0a001020000000000000000000000000000000000000000000000000000000000002a88f8d6e0586b0a20c7032a88ee82856bf20e2aa6c988f8d6e0586b0a20c7c8c3800202c3800301c4c3010703"
+        val tx = transaction()
+            .addPayloadSignature(proposer, 3, FlowSignature(byteArrayOf(1)))
+            .addPayloadSignature(proposer, 2, FlowSignature(byteArrayOf(2)))
+            .addEnvelopeSignature(payer, 7, FlowSignature(byteArrayOf(3)))
+
+        assertEquals(expected, TransactionRlp.encodeTransaction(tx).bytesToHex())
+        assertEquals(expected, FlowTransaction.of(expected.hexToBytes()).canonicalTransaction.bytesToHex())
+    }
+
+    @Test
+    fun `Test decoding matches RLPCodec`() {
+        val bytes = transaction(script = "x".repeat(300), arguments = listOf(FlowArgument(byteArrayOf(1, 2, 3)))).signed().canonicalTransaction
+
+        val expected = RLPCodec.decode(bytes, TransactionEnvelope::class.java)
+        val actual = TransactionRlp.decodeTransaction(bytes)
+
+        assertArrayEquals(RLPCodec.encode(expected), RLPCodec.encode(actual))
+    }
+
+    @Test
+    fun `Test malformed input is rejected`() {
+        val bytes = transaction().signed().canonicalTransaction
+
+        assertThrows<IllegalArgumentException> { TransactionRlp.decodeTransaction(bytes.copyOf(bytes.size - 1)) }
+        assertThrows<IllegalArgumentException> { TransactionRlp.decodeTransaction(bytes + byteArrayOf(0)) }
+        assertThrows<IllegalArgumentException> { TransactionRlp.decodeTransaction(byteArrayOf(0x80.toByte())) }
+    }
+}
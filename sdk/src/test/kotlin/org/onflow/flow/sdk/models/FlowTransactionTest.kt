@@ -3,8 +3,14 @@ package org.onflow.flow.sdk.models
 import org.onflow.flow.sdk.*
 import org.onflow.flow.sdk.cadence.StringField
 import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertSame
 import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.Test
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.ObjectInputStream
+import java.io.ObjectOutputStream
 
 class FlowTransactionTest {
     @Test
@@ -100,6 +106,80 @@ class FlowTransactionTest {
         flowTransaction.authorizers.forEachIndexed { index, authorizer -> assertEquals(index + AUTHORIZER_INDEX_OFFSET, signerMap[authorizer]) }
     }
 
+    @Test
+    fun `Test encodings and id are computed once per instance`() {
+        val flowTransaction = createSampleFlowTransaction()
+
+        assertSame(flowTransaction.payloadBytes, flowTransaction.payloadBytes)
+        assertSame(flowTransaction.authorizationEnvelopeBytes, flowTransaction.authorizationEnvelopeBytes)
+        assertSame(flowTransaction.id, flowTransaction.id)
+    }
+
+    @Test
+    fun `Test changing a returned encoding does not change the id or signatures`() {
+        val expected = createSampleFlowTransaction()
+        val flowTransaction = createSampleFlowTransaction()
+        val echo = object : Signer {
+            override fun sign(bytes: ByteArray): ByteArray = bytes
+        }
+
+        flowTransaction.canonicalPayload.fill(0)
+        flowTransaction.canonicalAuthorizationEnvelope.fill(0)
+        flowTransaction.canonicalTransaction.fill(0)
+
+        assertEquals(expected.id, flowTransaction.id)
+        assertTrue(expected.canonicalPayload.contentEquals(flowTransaction.canonicalPayload))
+        val address = flowTransaction.proposalKey.address
+        assertTrue(
+            expected.addPayloadSignature(address, 0, echo).payloadSignatures[0].signature.bytes
+                .contentEquals(flowTransaction.addPayloadSignature(address, 0, echo).payloadSignatures[0].signature.bytes)
+        )
+        assertTrue(
+            expected.addEnvelopeSignature(address, 0, echo).envelopeSignatures[0].signature.bytes
+                .contentEquals(flowTransaction.addEnvelopeSignature(address, 0, echo).envelopeSignatures[0].signature.bytes)
+        )
+    }
+
+    @Test
+    fun `Test a signer changing its input does not change the transaction`() {
+        val expected = createSampleFlowTransaction()
+        val flowTransaction = createSampleFlowTransaction()
+        val scribbler = object : Signer {
+            override fun sign(bytes: ByteArray): ByteArray = bytes.copyOf().also { bytes.fill(0) }
+            override fun signWithDomain(bytes: ByteArray, domain: ByteArray): ByteArray = sign(bytes)
+        }
+        val address = flowTransaction.proposalKey.address
+
+        flowTransaction.addPayloadSignature(address, 0, scribbler)
+        flowTransaction.addEnvelopeSignature(address, 0, scribbler)
+
+        assertTrue(expected.canonicalPayload.contentEquals(flowTransaction.canonicalPayload))
+        assertTrue(expected.canonicalAuthorizationEnvelope.contentEquals(flowTransaction.canonicalAuthorizationEnvelope))
+        assertEquals(expected.id, flowTransaction.id)
+    }
+
+    @Test
+    fun `Test copies do not reuse the cached encodings`() {
+        val flowTransaction = createSampleFlowTransaction()
+        val id = flowTransaction.id
+
+        val signed = flowTransaction.addEnvelopeSignature(FlowAddress.of("0x02".hexToBytes()), 0, FlowSignature("abcd"))
+
+        assertNotEquals(id, signed.id)
+        assertTrue(flowTransaction.canonicalPayload.contentEquals(signed.canonicalPayload))
+    }
+
+    @Test
+    fun `Test cached encodings survive serialization`() {
+        val flowTransaction = createSampleFlowTransaction()
+        val id = flowTransaction.id
+        val bytes = ByteArrayOutputStream().also { ObjectOutputStream(it).use { out -> out.writeObject(flowTransaction) } }.toByteArray()
+
+        val restored = ObjectInputStream(ByteArrayInputStream(bytes)).use { it.readObject() } as FlowTransaction
+
+        assertEquals(id, restored.id)
+    }
+
     companion object {
         private const val EXPECTED_SIGNER_LIST_SIZE = 3
         private const val EXPECTED_SIGNER_MAP_SIZE = 3